@@ -0,0 +1,142 @@
+package com.englishtown.vertx.jersey.benchmarks;
+
+import com.englishtown.vertx.jersey.ExecutionMode;
+import com.englishtown.vertx.jersey.JerseyServer;
+import com.englishtown.vertx.jersey.impl.DefaultJerseyHandler;
+import com.englishtown.vertx.jersey.impl.DefaultJerseyOptions;
+import com.englishtown.vertx.jersey.impl.DefaultJerseyServer;
+import com.englishtown.vertx.jersey.impl.DefaultVertxContainer;
+import com.englishtown.vertx.jersey.impl.VirtualThreadExecutor;
+import com.englishtown.vertx.jersey.inject.impl.VertxResponseWriterProvider;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compares the {@code worker} and {@code virtual_thread} execution modes end to end.  Each operation sends a burst of
+ * concurrent requests over http to a jersey server whose resource blocks for a fixed time, and waits for every
+ * response, so the dispatch through jersey, the hop of the response back to the event loop and, for POST, a streamed
+ * request body read by the resource are all measured.  The virtual thread mode needs Java 21 or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+
+    private static final String HOST = "127.0.0.1";
+    private static final int PORT = 18089;
+
+    @Param({"worker", "virtual_thread"})
+    public String executionMode;
+
+    @Param({"100", "1000"})
+    public int concurrency;
+
+    @Param({"10"})
+    public long blockMillis;
+
+    @Param({"GET", "POST"})
+    public String method;
+
+    @Param({"16384"})
+    public int bodySize;
+
+    private Vertx vertx;
+    private JerseyServer server;
+    private HttpClient client;
+    private Buffer body;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (ExecutionMode.VIRTUAL_THREAD.name().equalsIgnoreCase(executionMode) && !VirtualThreadExecutor.isSupported()) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later");
+        }
+
+        vertx = Vertx.vertx();
+        body = Buffer.buffer(new byte[bodySize]);
+
+        VertxResponseWriterProvider writerProvider = new VertxResponseWriterProvider(vertx, new ArrayList<>(), new ArrayList<>());
+        server = new DefaultJerseyServer(
+                new DefaultJerseyHandler(writerProvider, new ArrayList<>()),
+                new DefaultVertxContainer(vertx, null));
+
+        DefaultJerseyOptions options = new DefaultJerseyOptions();
+        options.init(new JsonObject()
+                .put("host", HOST)
+                .put("port", PORT)
+                .put("execution_mode", executionMode)
+                .put("resources", new JsonArray().add("com.englishtown.vertx.jersey.benchmarks.resources")));
+
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        server.init(options, result -> {
+            if (result.succeeded()) {
+                started.complete(null);
+            } else {
+                started.completeExceptionally(result.cause());
+            }
+        });
+        started.get(30, TimeUnit.SECONDS);
+
+        client = vertx.createHttpClient(new HttpClientOptions()
+                .setDefaultHost(HOST)
+                .setDefaultPort(PORT)
+                .setKeepAlive(true)
+                .setMaxPoolSize(concurrency));
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        server.close();
+        vertx.close();
+    }
+
+    @Benchmark
+    public void requests() throws Exception {
+        CountDownLatch latch = new CountDownLatch(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        String uri = "/block?millis=" + blockMillis;
+
+        for (int i = 0; i < concurrency; i++) {
+            HttpClientRequest request = client.request(HttpMethod.valueOf(method), uri, response -> {
+                if (response.statusCode() != 200) {
+                    failure.compareAndSet(null, new IllegalStateException("Unexpected status " + response.statusCode()));
+                }
+                response.bodyHandler(b -> latch.countDown());
+            });
+            request.exceptionHandler(t -> {
+                failure.compareAndSet(null, t);
+                latch.countDown();
+            });
+            if (HttpMethod.POST.name().equals(method)) {
+                request.putHeader(HttpHeaders.CONTENT_TYPE, "application/octet-stream")
+                        .putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()))
+                        .end(body);
+            } else {
+                request.end();
+            }
+        }
+
+        latch.await();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Request failed", failure.get());
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.englishtown.vertx.jersey.benchmarks;
+
+import com.englishtown.vertx.jersey.impl.CompositeBufferAggregator;
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating a request body into one growing buffer and copying it into a byte array
+ * against aggregating it into a composite buffer, for bodies received in 8KB chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"1024", "65536", "1048576"})
+    public int bodySize;
+
+    private byte[][] chunks;
+    private final byte[] readBuffer = new byte[CHUNK_SIZE];
+
+    @Setup
+    public void setUp() {
+        int count = (bodySize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            int length = Math.min(CHUNK_SIZE, bodySize - i * CHUNK_SIZE);
+            chunks[i] = new byte[length];
+        }
+    }
+
+    @Benchmark
+    public void appendBuffer(Blackhole bh) throws IOException {
+        Buffer body = Buffer.buffer();
+        for (byte[] chunk : chunks) {
+            body.appendBuffer(Buffer.buffer(chunk));
+        }
+        drain(new ByteArrayInputStream(body.getBytes()), bh);
+    }
+
+    @Benchmark
+    public void compositeBuffer(Blackhole bh) throws IOException {
+        CompositeBufferAggregator body = new CompositeBufferAggregator();
+        for (byte[] chunk : chunks) {
+            body.append(Buffer.buffer(chunk));
+        }
+        drain(body.toInputStream(), bh);
+    }
+
+    private void drain(InputStream inputStream, Blackhole bh) throws IOException {
+        int read;
+        while ((read = inputStream.read(readBuffer)) != -1) {
+            bh.consume(read);
+        }
+    }
+
+}
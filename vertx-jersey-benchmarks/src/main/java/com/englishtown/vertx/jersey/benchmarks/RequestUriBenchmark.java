@@ -0,0 +1,61 @@
+package com.englishtown.vertx.jersey.benchmarks;
+
+import com.englishtown.vertx.jersey.impl.RequestUriFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the jersey request and base URIs with {@link UriBuilder} against the
+ * {@link RequestUriFactory} fast path.  Run with {@code -prof gc} to compare allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RequestUriBenchmark {
+
+    private static final String BASE_PATH = "/rest/";
+    private static final String HOST = "api.englishtown.com:8080";
+    private static final String URI_PATH = "/rest/users/12345/orders?page=2&size=50";
+    private static final String ABSOLUTE_URI = "http://" + HOST + URI_PATH;
+
+    private RequestUriFactory factory;
+
+    @Setup
+    public void setUp() {
+        factory = new RequestUriFactory(false, BASE_PATH);
+    }
+
+    @Benchmark
+    public void uriBuilder(Blackhole bh) {
+        URI uri = URI.create(ABSOLUTE_URI);
+
+        String[] parts = HOST.split(":");
+        String host = parts[0];
+        int port = (parts.length > 1 ? Integer.valueOf(parts[1]) : -1);
+        if (!host.equalsIgnoreCase(uri.getHost()) || port != uri.getPort()) {
+            uri = UriBuilder.fromUri(uri).host(host).port(port).build();
+        }
+
+        URI baseUri = UriBuilder.fromUri(uri)
+                .replacePath(BASE_PATH)
+                .replaceQuery(null)
+                .build();
+
+        bh.consume(uri);
+        bh.consume(baseUri);
+    }
+
+    @Benchmark
+    public void requestUriFactory(Blackhole bh) {
+        bh.consume(factory.createRequestUri(HOST, URI_PATH));
+        bh.consume(factory.getBaseUri(HOST));
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.englishtown.vertx.jersey.benchmarks.resources;
+
+import com.englishtown.vertx.jersey.StreamBody;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Resource methods blocking for a fixed time, for the {@link com.englishtown.vertx.jersey.benchmarks.ExecutionModeBenchmark}
+ */
+@Path("block")
+@Produces(MediaType.TEXT_PLAIN)
+public class BlockingResource {
+
+    @GET
+    public String get(@QueryParam("millis") long millis) {
+        block(millis);
+        return "ok";
+    }
+
+    @POST
+    @StreamBody
+    public String post(@QueryParam("millis") long millis, InputStream body) throws IOException {
+        // Reads the streamed body, blocking on the event loop delivering it
+        byte[] buffer = new byte[8192];
+        long length = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            length += read;
+        }
+        block(millis);
+        return String.valueOf(length);
+    }
+
+    private void block(long millis) {
+        try {
+            // Stands in for a blocking JDBC or http call
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
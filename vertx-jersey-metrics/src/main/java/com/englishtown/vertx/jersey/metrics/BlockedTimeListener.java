@@ -0,0 +1,60 @@
+package com.englishtown.vertx.jersey.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.englishtown.vertx.jersey.impl.BlockedTimeEventListener;
+import org.glassfish.jersey.server.model.ResourceMethod;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a histogram of the event loop time of every resource method, and counts the invocations over the
+ * blocked time threshold.  Logging blocked methods is left to the container.
+ */
+public class BlockedTimeListener extends BlockedTimeEventListener {
+
+    public static final String EVENT_LOOP_HISTOGRAM_PREFIX = "et.metrics.jersey.eventLoop";
+    public static final String BLOCKED_COUNTER_PREFIX = "et.metrics.jersey.blocked";
+
+    private final MetricRegistry registry;
+    private final Map<ResourceMethod, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<ResourceMethod, Counter> counters = new ConcurrentHashMap<>();
+
+    @Inject
+    public BlockedTimeListener(MetricRegistry registry) {
+        super(false);
+        this.registry = registry;
+    }
+
+    /**
+     * Records the invocation time in microseconds
+     *
+     * @param resourceMethod the invoked resource method
+     * @param nanos          the invocation time in nanoseconds
+     */
+    @Override
+    protected void onInvocation(ResourceMethod resourceMethod, long nanos) {
+        histograms.computeIfAbsent(resourceMethod,
+                method -> registry.histogram(MetricRegistry.name(EVENT_LOOP_HISTOGRAM_PREFIX, getName(method))))
+                .update(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+
+    /**
+     * Counts the blocked invocation
+     *
+     * @param resourceMethod the invoked resource method
+     * @param nanos          the invocation time in nanoseconds
+     * @param stack          the sampled stack, not used
+     */
+    @Override
+    protected void onBlocked(ResourceMethod resourceMethod, long nanos, StackTraceElement[] stack) {
+        counters.computeIfAbsent(resourceMethod,
+                method -> registry.counter(MetricRegistry.name(BLOCKED_COUNTER_PREFIX, getName(method))))
+                .inc();
+    }
+
+}
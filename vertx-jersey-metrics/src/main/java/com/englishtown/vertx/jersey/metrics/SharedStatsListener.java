@@ -0,0 +1,69 @@
+package com.englishtown.vertx.jersey.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.englishtown.vertx.jersey.impl.AdmissionController;
+import com.englishtown.vertx.jersey.impl.ApplicationWarmUp;
+import io.vertx.core.Vertx;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import javax.inject.Inject;
+
+/**
+ * Registers gauges for the admission and warm-up stats shared by all verticle instances once the jersey application
+ * is initialized
+ */
+public class SharedStatsListener implements ApplicationEventListener {
+
+    public static final String IN_FLIGHT_GAUGE_NAME = "et.metrics.jersey.admission.inFlight";
+    public static final String QUEUED_GAUGE_NAME = "et.metrics.jersey.admission.queued";
+    public static final String REJECTED_GAUGE_NAME = "et.metrics.jersey.admission.rejected";
+    public static final String WARM_UP_DURATION_GAUGE_NAME = "et.metrics.jersey.warmUp.duration";
+
+    private final MetricRegistry registry;
+    private final Vertx vertx;
+
+    @Inject
+    public SharedStatsListener(MetricRegistry registry, Vertx vertx) {
+        this.registry = registry;
+        this.vertx = vertx;
+    }
+
+    /**
+     * Registers the gauges when an application finishes initializing, applications started later find them
+     * registered
+     *
+     * @param event the application event
+     */
+    @Override
+    public void onEvent(ApplicationEvent event) {
+        if (event.getType() != ApplicationEvent.Type.INITIALIZATION_FINISHED) {
+            return;
+        }
+
+        AdmissionController.SharedStats stats = AdmissionController.SharedStats.get(vertx);
+        registerGauge(IN_FLIGHT_GAUGE_NAME, stats::getInFlight);
+        registerGauge(QUEUED_GAUGE_NAME, stats::getQueued);
+        registerGauge(REJECTED_GAUGE_NAME, stats::getRejected);
+
+        // Duration in milliseconds of the last warm-up before the server started listening
+        registerGauge(WARM_UP_DURATION_GAUGE_NAME, ApplicationWarmUp.SharedStats.get(vertx)::getDuration);
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        return null;
+    }
+
+    private void registerGauge(String name, Gauge<?> gauge) {
+        synchronized (registry) {
+            if (!registry.getGauges().containsKey(name)) {
+                registry.register(name, gauge);
+            }
+        }
+    }
+
+}
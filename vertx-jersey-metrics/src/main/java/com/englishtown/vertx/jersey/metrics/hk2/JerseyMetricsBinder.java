@@ -26,10 +26,15 @@ package com.englishtown.vertx.jersey.metrics.hk2;
 import com.englishtown.vertx.jersey.inject.VertxPostResponseProcessor;
 import com.englishtown.vertx.jersey.inject.VertxRequestProcessor;
 import com.englishtown.vertx.jersey.inject.VertxResponseProcessor;
+import com.englishtown.vertx.jersey.metrics.BlockedTimeListener;
 import com.englishtown.vertx.jersey.metrics.PostResponseProcessor;
 import com.englishtown.vertx.jersey.metrics.RequestProcessor;
 import com.englishtown.vertx.jersey.metrics.ResponseProcessor;
+import com.englishtown.vertx.jersey.metrics.SharedStatsListener;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+
+import javax.inject.Singleton;
 
 /**
  * HK2 binder for jersey metrics
@@ -48,6 +53,10 @@ public class JerseyMetricsBinder extends AbstractBinder {
         bind(ResponseProcessor.class).to(VertxResponseProcessor.class).ranked(-999);
         // Run post response processor last so give it a low rank
         bind(PostResponseProcessor.class).to(VertxPostResponseProcessor.class).ranked(-999);
+        // Jersey looks up application event listeners through its parent service locator
+        bind(BlockedTimeListener.class).to(ApplicationEventListener.class).in(Singleton.class);
+        // Register the shared admission and warm-up gauges once
+        bind(SharedStatsListener.class).to(ApplicationEventListener.class).in(Singleton.class);
 
     }
 }
@@ -0,0 +1,21 @@
+package com.englishtown.vertx.jersey;
+
+import java.lang.annotation.*;
+
+/**
+ * Overrides whether a resource method or all methods of a resource class block and must be invoked off the
+ * vert.x event loop
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Blocking {
+
+    /**
+     * Whether the resource blocks
+     *
+     * @return true to invoke on a worker thread, false to invoke on the event loop
+     */
+    boolean value() default true;
+
+}
@@ -0,0 +1,24 @@
+package com.englishtown.vertx.jersey;
+
+/**
+ * Where jersey resource methods are invoked
+ */
+public enum ExecutionMode {
+
+    /**
+     * Invoke resources on the vert.x event loop, resources must not block
+     */
+    EVENT_LOOP,
+
+    /**
+     * Invoke resources on the vert.x worker pool so they can block without stalling the event loop
+     */
+    WORKER,
+
+    /**
+     * Invoke each resource on its own virtual thread so blocking resources scale without a large worker pool.
+     * Requires Java 21 or later.
+     */
+    VIRTUAL_THREAD
+
+}
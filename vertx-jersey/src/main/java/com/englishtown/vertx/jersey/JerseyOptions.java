@@ -23,12 +23,14 @@
 
 package com.englishtown.vertx.jersey;
 
+import com.englishtown.vertx.jersey.impl.DefaultJerseyOptions;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.JksOptions;
 import org.glassfish.jersey.server.ApplicationHandler;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -155,4 +157,225 @@ public interface JerseyOptions {
      */
     boolean getCompressionSupported();
 
+    /**
+     * Gets whether request bodies are streamed to jersey while they arrive rather than buffered first (defaults to false)
+     *
+     * @return whether request bodies are streamed
+     */
+    default boolean getStreamRequestBody() {
+        return false;
+    }
+
+    /**
+     * The number of request body bytes buffered before the vert.x request is paused when streaming
+     *
+     * @return the stream buffer size in bytes
+     */
+    default int getStreamBufferSize() {
+        return DefaultJerseyOptions.DEFAULT_STREAM_BUFFER_SIZE;
+    }
+
+    /**
+     * The http methods whose request bodies are read and passed to jersey (defaults to POST, PUT and PATCH)
+     *
+     * @return list of http method names
+     */
+    default List<String> getRequestBodyMethods() {
+        return DefaultJerseyOptions.DEFAULT_REQUEST_BODY_METHODS;
+    }
+
+    /**
+     * The content types whose request bodies are read and passed to jersey.  Wildcards such as {@code application/*}
+     * are supported.  Requests without a content type are always read.
+     *
+     * @return list of media types
+     */
+    default List<String> getRequestBodyMediaTypes() {
+        return DefaultJerseyOptions.DEFAULT_REQUEST_BODY_MEDIA_TYPES;
+    }
+
+    /**
+     * The number of bytes written to a chunked response before they are sent as a chunk.  Smaller writes are
+     * coalesced until the threshold, a flush or the flush interval is reached.  A value of 0 sends every write.
+     *
+     * @return the chunk flush size in bytes
+     */
+    default int getChunkFlushSize() {
+        return DefaultJerseyOptions.DEFAULT_CHUNK_FLUSH_SIZE;
+    }
+
+    /**
+     * The max number of milliseconds coalesced chunked response data is held before it is sent (defaults to 0, only
+     * send on the flush size, a flush or close)
+     *
+     * @return the chunk flush interval in milliseconds
+     */
+    default int getChunkFlushInterval() {
+        return 0;
+    }
+
+    /**
+     * The max size of the response write queue for chunked and write stream responses before writers running off the
+     * event loop are suspended (defaults to 0, the vert.x default)
+     *
+     * @return the write queue max size in bytes
+     */
+    default int getWriteQueueMaxSize() {
+        return 0;
+    }
+
+    /**
+     * Where jersey resource methods are invoked (defaults to {@link ExecutionMode#EVENT_LOOP}).  Resources can
+     * override the mode with the {@link Blocking} annotation.
+     *
+     * @return the execution mode
+     */
+    default ExecutionMode getExecutionMode() {
+        return ExecutionMode.EVENT_LOOP;
+    }
+
+    /**
+     * The time in milliseconds a resource method may run on the event loop before it is reported as blocking
+     * (defaults to 0, disabled)
+     *
+     * @return the blocked time threshold in milliseconds
+     */
+    default int getBlockedTimeThreshold() {
+        return 0;
+    }
+
+    /**
+     * Gets whether stacks of resource methods blocking the event loop past the threshold are sampled and logged
+     * (defaults to false)
+     *
+     * @return whether blocked stacks are sampled
+     */
+    default boolean getBlockedTimeSampleStacks() {
+        return false;
+    }
+
+    /**
+     * The max number of requests a verticle instance passes to jersey at once, 0 for no limit (defaults to 0).
+     * This is the ceiling of the limit when it is adaptive.
+     *
+     * @return the max concurrent requests
+     */
+    default int getMaxConcurrentRequests() {
+        return 0;
+    }
+
+    /**
+     * The max number of requests passed to jersey at once across all verticle instances, 0 for no limit (defaults to 0)
+     *
+     * @return the global max concurrent requests
+     */
+    default int getMaxConcurrentRequestsGlobal() {
+        return 0;
+    }
+
+    /**
+     * The max number of requests over the concurrency limit queued per verticle instance before requests are rejected
+     * (defaults to 0)
+     *
+     * @return the max queued requests
+     */
+    default int getMaxQueuedRequests() {
+        return 0;
+    }
+
+    /**
+     * The max milliseconds a request waits in the queue before it is rejected, 0 for no timeout (defaults to 5000)
+     *
+     * @return the queue timeout in milliseconds
+     */
+    default int getQueueTimeout() {
+        return DefaultJerseyOptions.DEFAULT_QUEUE_TIMEOUT;
+    }
+
+    /**
+     * Gets whether the concurrency limit adapts to request latency (AIMD) rather than being static (defaults to false)
+     *
+     * @return whether the concurrency limit is adaptive
+     */
+    default boolean getAdaptiveConcurrencyLimit() {
+        return false;
+    }
+
+    /**
+     * The request latency in milliseconds above which an adaptive concurrency limit is decreased (defaults to 100)
+     *
+     * @return the latency target in milliseconds
+     */
+    default int getConcurrencyLatencyTarget() {
+        return DefaultJerseyOptions.DEFAULT_CONCURRENCY_LATENCY_TARGET;
+    }
+
+    /**
+     * The Retry-After seconds sent with a 503 when a request is rejected (defaults to 1)
+     *
+     * @return the retry after seconds
+     */
+    default int getRetryAfter() {
+        return DefaultJerseyOptions.DEFAULT_RETRY_AFTER;
+    }
+
+    /**
+     * Gets whether verticle instances with the same configuration share one jersey application handler (defaults to
+     * false)
+     *
+     * @return whether the application handler is shared
+     */
+    default boolean getShareApplicationHandler() {
+        return false;
+    }
+
+    /**
+     * Gets whether resources and providers are registered from the index written at build time rather than by
+     * scanning the packages (defaults to false)
+     *
+     * @return whether the resource index is used
+     */
+    default boolean getUseResourceIndex() {
+        return false;
+    }
+
+    /**
+     * The max number of milliseconds a reload waits for the in-flight requests of the replaced application before
+     * shutting it down, 0 to wait until they finish (defaults to 30000)
+     *
+     * @return the reload drain timeout in milliseconds
+     */
+    default int getReloadDrainTimeout() {
+        return DefaultJerseyOptions.DEFAULT_RELOAD_DRAIN_TIMEOUT;
+    }
+
+    /**
+     * The paths requested through jersey before the http server listens to warm it up, each {@code [METHOD ]path}
+     * or {@code *} for every GET resource method without path parameters (defaults to none)
+     *
+     * @return list of warm-up paths
+     */
+    default List<String> getWarmUpPaths() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * The number of times each warm-up path is requested (defaults to 1)
+     *
+     * @return the warm-up iterations
+     */
+    default int getWarmUpIterations() {
+        return 1;
+    }
+
+    /**
+     * Gets whether the message body reader and writer selected for each resource method are computed at startup and
+     * cached (defaults to false)
+     *
+     * @return whether message body selection is precomputed
+     */
+    default boolean getPrecomputeMessageBodies() {
+        return false;
+    }
+
 }
@@ -0,0 +1,20 @@
+package com.englishtown.vertx.jersey;
+
+import java.lang.annotation.*;
+
+/**
+ * Overrides the configured max request body size for a resource method or all methods of a resource class
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface MaxBodySize {
+
+    /**
+     * The max request body size in bytes
+     *
+     * @return the max body size
+     */
+    int value();
+
+}
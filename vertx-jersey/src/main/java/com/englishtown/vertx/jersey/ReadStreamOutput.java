@@ -0,0 +1,51 @@
+package com.englishtown.vertx.jersey;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * A response entity that streams any vert.x {@link ReadStream} (an {@link io.vertx.core.file.AsyncFile}, an
+ * {@link io.vertx.core.http.HttpClientResponse}, etc.) to the underlying vert.x HttpServerResponse with backpressure.
+ * <p>
+ * The response is ended and the post response processors run once the read stream ends.
+ */
+public interface ReadStreamOutput {
+
+    /**
+     * The read stream providing the response body
+     *
+     * @return the read stream
+     */
+    ReadStream<Buffer> getReadStream();
+
+    /**
+     * The number of bytes the read stream provides, or -1 if unknown.  Responses of unknown length are chunked.
+     *
+     * @return the content length
+     */
+    long getLength();
+
+    /**
+     * Pumps the read stream to the response.
+     * <p>
+     * For internal support, typically you don't need to call this.
+     *
+     * @param response    the response to write to
+     * @param doneHandler the handler called when the read stream has ended or failed
+     */
+    void pump(HttpServerResponse response, Handler<AsyncResult<Void>> doneHandler);
+
+    /**
+     * Stops pumping the read stream, such as when the client goes away.  The done handler is called with the error
+     * if the pump has not completed yet.
+     * <p>
+     * For internal support, typically you don't need to call this.
+     *
+     * @param error the reason the pump was stopped
+     */
+    void stop(Throwable error);
+
+}
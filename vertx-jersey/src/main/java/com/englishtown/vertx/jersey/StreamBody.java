@@ -0,0 +1,21 @@
+package com.englishtown.vertx.jersey;
+
+import java.lang.annotation.*;
+
+/**
+ * Overrides whether the request body is streamed to jersey or buffered first for a resource method
+ * or all methods of a resource class
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface StreamBody {
+
+    /**
+     * Whether the request body is streamed
+     *
+     * @return true to stream, false to buffer
+     */
+    boolean value() default true;
+
+}
@@ -1,6 +1,8 @@
 package com.englishtown.vertx.jersey;
 
 import io.vertx.core.Vertx;
+import org.glassfish.hk2.api.ServiceLocatorFactory;
+import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.spi.Container;
 
 /**
@@ -26,4 +28,15 @@ public interface VertxContainer extends Container {
 
     ApplicationHandlerDelegate getApplicationHandlerDelegate();
 
+    /**
+     * Runs the jersey shutdown lifecycle and destroys the jersey service locator
+     */
+    default void stop() {
+        ApplicationHandler applicationHandler = getApplicationHandler();
+        if (applicationHandler != null) {
+            applicationHandler.onShutdown(this);
+            ServiceLocatorFactory.getInstance().destroy(applicationHandler.getServiceLocator());
+        }
+    }
+
 }
@@ -30,6 +30,18 @@ public interface WriteStreamOutput extends WriteStream<Buffer> {
      */
     boolean isResponseSet();
 
+    /**
+     * Restricts the body to a single byte range for a partial content (206) response.  Everything is still written
+     * to the output, bytes outside the range are dropped.  Called before {@link #init(HttpServerResponse, Handler)}.
+     *
+     * @param start the first byte position
+     * @param end   the last byte position, inclusive
+     * @return true if the output supports ranges, otherwise the full body is sent
+     */
+    default boolean setRange(long start, long end) {
+        return false;
+    }
+
     /**
      * Ends the current http response
      */
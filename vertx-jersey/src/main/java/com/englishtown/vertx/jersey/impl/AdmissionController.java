@@ -0,0 +1,406 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the requests a jersey handler (one per verticle instance) passes to jersey at once.  Requests over the
+ * limit wait in a bounded queue and are rejected once it is full or they time out.  An optional global limit is shared
+ * by every handler of the vert.x instance, requests over it are rejected without queueing.
+ */
+public class AdmissionController {
+
+    public static final String SHARED_STATS_MAP = "vertx-jersey.admission";
+
+    /**
+     * A concurrency limit
+     */
+    public interface Limit {
+
+        /**
+         * The current max number of in-flight requests
+         *
+         * @return the limit
+         */
+        int getLimit();
+
+        /**
+         * Called when a request completes
+         *
+         * @param latencyNanos the time from admission to commit in nanoseconds
+         */
+        void onSample(long latencyNanos);
+
+    }
+
+    /**
+     * A fixed limit
+     */
+    public static class StaticLimit implements Limit {
+
+        private final int limit;
+
+        public StaticLimit(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public void onSample(long latencyNanos) {
+        }
+    }
+
+    /**
+     * An additive increase, multiplicative decrease limit.  The limit grows by one for every limit's worth of
+     * requests completing within the latency target and is cut by the backoff ratio when a request is slower.  The
+     * limit is cut at most once per latency window: slow requests admitted before the last cut do not cut it again.
+     */
+    public static class AimdLimit implements Limit {
+
+        public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+        private final int maxLimit;
+        private final long latencyTargetNanos;
+        private final double backoffRatio;
+        private double limit;
+        private boolean decreased;
+        private long lastDecreaseNanos;
+
+        public AimdLimit(int maxLimit, long latencyTargetMillis) {
+            this(maxLimit, latencyTargetMillis, DEFAULT_BACKOFF_RATIO);
+        }
+
+        public AimdLimit(int maxLimit, long latencyTargetMillis, double backoffRatio) {
+            this.maxLimit = maxLimit;
+            this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis);
+            this.backoffRatio = backoffRatio;
+            this.limit = maxLimit;
+        }
+
+        @Override
+        public synchronized int getLimit() {
+            return (int) limit;
+        }
+
+        @Override
+        public void onSample(long latencyNanos) {
+            onSample(latencyNanos, System.nanoTime());
+        }
+
+        synchronized void onSample(long latencyNanos, long nowNanos) {
+            if (latencyNanos > latencyTargetNanos) {
+                // Requests already in flight at the last cut were admitted under the old limit
+                long startNanos = nowNanos - latencyNanos;
+                if (!decreased || startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(1, limit * backoffRatio);
+                    decreased = true;
+                    lastDecreaseNanos = nowNanos;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Admission counters shared by the handlers of a vert.x instance
+     */
+    public static class SharedStats implements Shareable {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+
+        /**
+         * Returns the shared stats of the vert.x instance
+         *
+         * @param vertx the vert.x instance
+         * @return the shared stats
+         */
+        public static SharedStats get(Vertx vertx) {
+            LocalMap<String, SharedStats> map = vertx.sharedData().getLocalMap(SHARED_STATS_MAP);
+            SharedStats stats = map.get(SHARED_STATS_MAP);
+            if (stats == null) {
+                SharedStats existing = map.putIfAbsent(SHARED_STATS_MAP, stats = new SharedStats());
+                if (existing != null) {
+                    stats = existing;
+                }
+            }
+            return stats;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public int getQueued() {
+            return queued.get();
+        }
+
+        public long getRejected() {
+            return rejected.get();
+        }
+    }
+
+    /**
+     * The permit of an admitted request, releasing it more than once has no effect
+     */
+    public static class Permit {
+
+        private final AdmissionController controller;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdmissionController controller, long startNanos) {
+            this.controller = controller;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Releases the permit and admits the next queued request
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                controller.release(startNanos);
+            }
+        }
+    }
+
+    private enum Acquired {
+        ACQUIRED,
+        LIMITED,
+        GLOBAL_LIMITED
+    }
+
+    private class QueuedTask {
+
+        private final Runnable task;
+        private final Runnable timedOut;
+        private final Context context;
+        private final AtomicBoolean dequeued = new AtomicBoolean();
+        private volatile long timerId = -1;
+
+        private QueuedTask(Runnable task, Runnable timedOut, Context context) {
+            this.task = task;
+            this.timedOut = timedOut;
+            this.context = context;
+        }
+
+        private boolean dequeue() {
+            if (!dequeued.compareAndSet(false, true)) {
+                return false;
+            }
+            queued.decrementAndGet();
+            stats.queued.decrementAndGet();
+            if (timerId >= 0) {
+                vertx.cancelTimer(timerId);
+            }
+            return true;
+        }
+
+        private void run() {
+            context.runOnContext(v -> task.run());
+        }
+
+        private void reject() {
+            stats.rejected.incrementAndGet();
+            if (timedOut != null) {
+                context.runOnContext(v -> timedOut.run());
+            }
+        }
+    }
+
+    private final Limit limit;
+    private final int globalLimit;
+    private final int maxQueued;
+    private final long queueTimeout;
+    private final SharedStats stats;
+    private final Vertx vertx;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param limit       the per handler limit
+     * @param globalLimit the limit across all handlers of the vert.x instance, 0 for none
+     * @param maxQueued   the max number of queued requests
+     * @param stats       the counters shared with the other handlers
+     */
+    public AdmissionController(Limit limit, int globalLimit, int maxQueued, SharedStats stats) {
+        this(limit, globalLimit, maxQueued, 0, stats, null);
+    }
+
+    /**
+     * @param limit        the per handler limit
+     * @param globalLimit  the limit across all handlers of the vert.x instance, 0 for none
+     * @param maxQueued    the max number of queued requests
+     * @param queueTimeout the max milliseconds a request waits in the queue, 0 for no timeout
+     * @param stats        the counters shared with the other handlers
+     * @param vertx        the vert.x instance timing out queued requests, required with a queue timeout
+     */
+    public AdmissionController(Limit limit, int globalLimit, int maxQueued, long queueTimeout, SharedStats stats, Vertx vertx) {
+        if (queueTimeout > 0 && vertx == null) {
+            throw new IllegalArgumentException("A vert.x instance is required with a queue timeout");
+        }
+        this.limit = limit;
+        this.globalLimit = globalLimit;
+        this.maxQueued = maxQueued;
+        this.queueTimeout = queueTimeout;
+        this.stats = stats;
+        this.vertx = vertx;
+    }
+
+    /**
+     * Runs the task now if the request is admitted or later on the context once it is
+     *
+     * @param task    the task passing the request to jersey, {@link #release(long)} must be called when it completes
+     * @param context the context queued tasks are run on
+     * @return false if the request was rejected
+     */
+    public boolean submit(Runnable task, Context context) {
+        return submit(task, null, context);
+    }
+
+    /**
+     * Runs the task now if the request is admitted or later on the context once it is.  A queued request that is not
+     * admitted within the queue timeout, or finds the global limit reached when its turn comes, is rejected by
+     * running the rejected task on the context instead.
+     *
+     * @param task     the task passing the request to jersey, {@link #release(long)} must be called when it completes
+     * @param rejected the task rejecting a queued request or null
+     * @param context  the context queued tasks are run on
+     * @return false if the request was rejected right away
+     */
+    public boolean submit(Runnable task, Runnable rejected, Context context) {
+
+        Acquired acquired = tryAcquire();
+
+        if (acquired == Acquired.ACQUIRED) {
+            task.run();
+            return true;
+        }
+
+        // Requests over the global limit are not queued
+        if (acquired == Acquired.GLOBAL_LIMITED || queued.incrementAndGet() > maxQueued) {
+            if (acquired != Acquired.GLOBAL_LIMITED) {
+                queued.decrementAndGet();
+            }
+            stats.rejected.incrementAndGet();
+            return false;
+        }
+
+        stats.queued.incrementAndGet();
+        QueuedTask queuedTask = new QueuedTask(task, rejected, context);
+        if (queueTimeout > 0) {
+            queuedTask.timerId = vertx.setTimer(queueTimeout, id -> expire(queuedTask));
+        }
+        queue.add(queuedTask);
+
+        // A request may have completed since the permit was refused
+        drain();
+        return true;
+    }
+
+    /**
+     * Takes a permit for a request admitted by {@link #submit(Runnable, Runnable, Context)} that releases it once
+     *
+     * @return the permit
+     */
+    public Permit permit() {
+        return new Permit(this, System.nanoTime());
+    }
+
+    /**
+     * Releases the permit of a completed request and admits the next queued request
+     *
+     * @param startNanos the {@link System#nanoTime()} the request was admitted at
+     */
+    public void release(long startNanos) {
+        inFlight.decrementAndGet();
+        stats.inFlight.decrementAndGet();
+        limit.onSample(System.nanoTime() - startNanos);
+        drain();
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    private void expire(QueuedTask queuedTask) {
+        queuedTask.timerId = -1;
+        if (queuedTask.dequeue()) {
+            queue.remove(queuedTask);
+            queuedTask.reject();
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            Acquired acquired = tryAcquire();
+            if (acquired == Acquired.LIMITED) {
+                return;
+            }
+            QueuedTask queuedTask = queue.poll();
+            if (queuedTask == null || !queuedTask.dequeue()) {
+                // Another thread took the task or it timed out
+                if (acquired == Acquired.ACQUIRED) {
+                    inFlight.decrementAndGet();
+                    stats.inFlight.decrementAndGet();
+                }
+                if (queuedTask == null) {
+                    return;
+                }
+                continue;
+            }
+            if (acquired == Acquired.GLOBAL_LIMITED) {
+                // The other handlers took the global permits while the request was queued
+                queuedTask.reject();
+                continue;
+            }
+            queuedTask.run();
+        }
+    }
+
+    private Acquired tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return Acquired.LIMITED;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        // Take the global permit with a compare and set as well, so handlers cannot overshoot the global limit together
+        int global;
+        do {
+            global = stats.inFlight.get();
+            if (globalLimit > 0 && global >= globalLimit) {
+                inFlight.decrementAndGet();
+                return Acquired.GLOBAL_LIMITED;
+            }
+        } while (!stats.inFlight.compareAndSet(global, global + 1));
+        return Acquired.ACQUIRED;
+    }
+
+}
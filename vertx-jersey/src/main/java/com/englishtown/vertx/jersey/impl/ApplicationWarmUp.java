@@ -0,0 +1,267 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.englishtown.vertx.jersey.security.DefaultSecurityContext;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ExtendedResourceContext;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends synthesized in-memory requests through a jersey {@link ApplicationHandler} before the http server listens so
+ * routing, provider and message body worker lookups and the JIT are warm for the first real requests.
+ * <p>
+ * Each path is {@code [METHOD ]path} with GET as the default method, {@link #ALL_RESOURCE_METHODS} expands to every
+ * GET resource method without path parameters.  The responses are discarded.
+ */
+public class ApplicationWarmUp {
+
+    /**
+     * Warm-up path for every GET resource method without path parameters
+     */
+    public static final String ALL_RESOURCE_METHODS = "*";
+
+    public static final String SHARED_STATS_MAP = "vertx-jersey.warm-up";
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationWarmUp.class);
+    private static final long REQUEST_TIMEOUT_SECONDS = 10;
+
+    private final ApplicationHandler applicationHandler;
+    private final URI baseUri;
+    private final List<String> paths;
+    private final int iterations;
+
+    public ApplicationWarmUp(ApplicationHandler applicationHandler, URI baseUri, List<String> paths, int iterations) {
+        this.applicationHandler = applicationHandler;
+        // Jersey needs an absolute base uri, the host is never used
+        this.baseUri = baseUri.isAbsolute() ? baseUri : URI.create("http://localhost").resolve(baseUri);
+        this.paths = paths;
+        this.iterations = Math.max(1, iterations);
+    }
+
+    /**
+     * Sends the warm-up requests, blocking until they are done.  Do not call on an event loop.
+     *
+     * @return the number of requests sent
+     */
+    public int run() {
+        List<String[]> requests = getRequests();
+        int count = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            for (String[] request : requests) {
+                if (apply(request[0], request[1])) {
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the method and path of each warm-up request
+     *
+     * @return the warm-up requests
+     */
+    protected List<String[]> getRequests() {
+        Set<String> entries = new LinkedHashSet<>();
+
+        for (String path : paths) {
+            if (ALL_RESOURCE_METHODS.equals(path.trim())) {
+                addResourceMethods(entries);
+            } else {
+                entries.add(path.trim());
+            }
+        }
+
+        List<String[]> requests = new ArrayList<>();
+        for (String entry : entries) {
+            int space = entry.indexOf(' ');
+            if (space > 0) {
+                requests.add(new String[]{entry.substring(0, space).toUpperCase(), entry.substring(space + 1).trim()});
+            } else {
+                requests.add(new String[]{HttpMethod.GET, entry});
+            }
+        }
+        return requests;
+    }
+
+    private void addResourceMethods(Set<String> entries) {
+        ExtendedResourceContext resourceContext = applicationHandler.getServiceLocator().getService(ExtendedResourceContext.class);
+        ResourceModel resourceModel = resourceContext == null ? null : resourceContext.getResourceModel();
+        if (resourceModel == null) {
+            return;
+        }
+        for (Resource resource : resourceModel.getRootResources()) {
+            addResourceMethods(entries, "", resource);
+        }
+    }
+
+    private void addResourceMethods(Set<String> entries, String parentPath, Resource resource) {
+        String path = RoutePolicyIndex.join(parentPath, resource.getPath());
+
+        // Path parameters can't be made up, only warm up literal paths.  Extended resources such as the WADL are
+        // added by jersey, not the application.
+        if (path.contains("{") || resource.isExtended()) {
+            return;
+        }
+
+        for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+            if (HttpMethod.GET.equals(resourceMethod.getHttpMethod()) && !resourceMethod.isExtended()) {
+                entries.add(HttpMethod.GET + " " + (path.isEmpty() ? "/" : path));
+            }
+        }
+
+        for (Resource child : resource.getChildResources()) {
+            addResourceMethods(entries, path, child);
+        }
+    }
+
+    private boolean apply(String method, String path) {
+        URI requestUri = baseUri.resolve(path.startsWith("/") ? path.substring(1) : path);
+        ContainerRequest request = new ContainerRequest(
+                baseUri,
+                requestUri,
+                method,
+                new DefaultSecurityContext("https".equalsIgnoreCase(baseUri.getScheme())),
+                new MapPropertiesDelegate());
+        request.header(HttpHeaders.ACCEPT, "*/*");
+
+        try {
+            ContainerResponse response = applicationHandler.apply(request).get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Warm-up " + method + " " + requestUri + " returned " + response.getStatus());
+            }
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Warm-up " + method + " " + requestUri + " timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Warm-up " + method + " " + requestUri + " failed: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Warm-up timings shared by the verticle instances of a vert.x instance
+     */
+    public static class SharedStats implements Shareable {
+
+        private final AtomicLong duration = new AtomicLong();
+        private final AtomicLong requests = new AtomicLong();
+        // Handlers waiting for the warm-up of each application handler, null once it is done
+        private final Map<ApplicationHandler, List<Handler<Void>>> warmUps = new WeakHashMap<>();
+
+        /**
+         * Returns the shared stats of the vert.x instance
+         *
+         * @param vertx the vert.x instance
+         * @return the shared stats
+         */
+        public static SharedStats get(Vertx vertx) {
+            LocalMap<String, SharedStats> map = vertx.sharedData().getLocalMap(SHARED_STATS_MAP);
+            SharedStats stats = map.get(SHARED_STATS_MAP);
+            if (stats == null) {
+                SharedStats existing = map.putIfAbsent(SHARED_STATS_MAP, stats = new SharedStats());
+                if (existing != null) {
+                    stats = existing;
+                }
+            }
+            return stats;
+        }
+
+        /**
+         * Starts the warm-up of an application handler.  Verticle instances sharing an application handler warm it up
+         * once: only the first caller warms it up and must call {@link #finish(ApplicationHandler)}, later callers
+         * are called back once it is done.
+         *
+         * @param applicationHandler the application handler
+         * @param doneHandler        called once the warm-up is done if the caller does not warm it up itself
+         * @return true if the caller warms the application handler up
+         */
+        public boolean start(ApplicationHandler applicationHandler, Handler<Void> doneHandler) {
+            synchronized (warmUps) {
+                if (!warmUps.containsKey(applicationHandler)) {
+                    warmUps.put(applicationHandler, new ArrayList<>());
+                    return true;
+                }
+                List<Handler<Void>> waiting = warmUps.get(applicationHandler);
+                if (waiting != null) {
+                    waiting.add(doneHandler);
+                    return false;
+                }
+            }
+            doneHandler.handle(null);
+            return false;
+        }
+
+        /**
+         * Finishes the warm-up of an application handler, calling back the verticle instances waiting for it
+         *
+         * @param applicationHandler the application handler
+         */
+        public void finish(ApplicationHandler applicationHandler) {
+            List<Handler<Void>> waiting;
+            synchronized (warmUps) {
+                waiting = warmUps.put(applicationHandler, null);
+            }
+            if (waiting != null) {
+                waiting.forEach(handler -> handler.handle(null));
+            }
+        }
+
+        /**
+         * Records a completed warm-up
+         *
+         * @param durationMillis the warm-up duration in milliseconds
+         * @param requestCount   the number of warm-up requests sent
+         */
+        public void record(long durationMillis, int requestCount) {
+            duration.set(durationMillis);
+            requests.set(requestCount);
+        }
+
+        /**
+         * The duration in milliseconds of the last warm-up
+         *
+         * @return the duration in milliseconds
+         */
+        public long getDuration() {
+            return duration.get();
+        }
+
+        /**
+         * The number of requests sent by the last warm-up
+         *
+         * @return the request count
+         */
+        public long getRequests() {
+            return requests.get();
+        }
+
+    }
+}
@@ -0,0 +1,211 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+import javax.ws.rs.core.Configuration;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every resource method invoked on a vert.x event loop and reports the methods that block the loop for longer
+ * than the configured threshold, so vert.x "Thread blocked" warnings can be traced to a resource.  Stacks of
+ * invocations still running past the threshold can optionally be sampled from a background thread.
+ */
+public class BlockedTimeEventListener implements ApplicationEventListener {
+
+    /**
+     * Application property with the blocked time threshold in milliseconds, 0 disables reporting
+     */
+    public static final String PROPERTY_THRESHOLD = "vertx.jersey.blockedTimeThreshold";
+
+    /**
+     * Application property whether stacks of blocked invocations are sampled
+     */
+    public static final String PROPERTY_SAMPLE_STACKS = "vertx.jersey.blockedTimeSampleStacks";
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockedTimeEventListener.class);
+
+    private final boolean logBlocked;
+    private final Set<Invocation> inFlight = ConcurrentHashMap.newKeySet();
+    private long thresholdNanos;
+    private ScheduledExecutorService sampler;
+
+    public BlockedTimeEventListener() {
+        this(true);
+    }
+
+    /**
+     * @param logBlocked whether blocked invocations are logged (and their stacks sampled), subclasses reporting
+     *                   elsewhere can turn this off
+     */
+    protected BlockedTimeEventListener(boolean logBlocked) {
+        this.logBlocked = logBlocked;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onEvent(ApplicationEvent event) {
+        switch (event.getType()) {
+            case INITIALIZATION_START:
+                configure(event.getResourceConfig());
+                break;
+            case DESTROY_FINISHED:
+                if (sampler != null) {
+                    sampler.shutdownNow();
+                    sampler = null;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RequestEventListener onRequest(RequestEvent requestEvent) {
+        // Only requests handled on the event loop can block it
+        return Context.isOnEventLoopThread() ? new Invocation() : null;
+    }
+
+    /**
+     * Called with the duration of every resource method invoked on the event loop
+     *
+     * @param resourceMethod the invoked resource method
+     * @param nanos          the invocation time in nanoseconds
+     */
+    protected void onInvocation(ResourceMethod resourceMethod, long nanos) {
+    }
+
+    /**
+     * Called when a resource method blocked the event loop for longer than the threshold
+     *
+     * @param resourceMethod the invoked resource method
+     * @param nanos          the invocation time in nanoseconds
+     * @param stack          the stack sampled while the invocation was blocked or null
+     */
+    protected void onBlocked(ResourceMethod resourceMethod, long nanos, StackTraceElement[] stack) {
+        if (!logBlocked) {
+            return;
+        }
+        String message = "Resource method " + getName(resourceMethod) + " blocked the event loop for "
+                + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+        if (stack == null) {
+            logger.warn(message);
+        } else {
+            Throwable sample = new Throwable("Sampled stack of the blocked resource method");
+            sample.setStackTrace(stack);
+            logger.warn(message, sample);
+        }
+    }
+
+    /**
+     * Returns the name resource methods are reported by
+     *
+     * @param resourceMethod the resource method
+     * @return the handler class and method name
+     */
+    public static String getName(ResourceMethod resourceMethod) {
+        Invocable invocable = resourceMethod.getInvocable();
+        Method method = (invocable == null ? null : invocable.getDefinitionMethod());
+        if (method == null) {
+            return resourceMethod.toString();
+        }
+        return method.getDeclaringClass().getName() + "." + method.getName();
+    }
+
+    /**
+     * The blocked time threshold
+     *
+     * @return the threshold in nanoseconds, 0 if disabled
+     */
+    protected long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    private void configure(Configuration configuration) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(getLong(configuration.getProperty(PROPERTY_THRESHOLD)));
+
+        boolean sampleStacks = Boolean.parseBoolean(String.valueOf(configuration.getProperty(PROPERTY_SAMPLE_STACKS)));
+        if (logBlocked && sampleStacks && thresholdNanos > 0 && sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "vertx-jersey-blocked-time-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2, 10);
+            sampler.scheduleAtFixedRate(this::sampleStacks, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long getLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return (value == null ? 0 : Long.parseLong(value.toString().trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void sampleStacks() {
+        long now = System.nanoTime();
+        for (Invocation invocation : inFlight) {
+            if (invocation.stack == null && now - invocation.start >= thresholdNanos) {
+                invocation.stack = invocation.thread.getStackTrace();
+            }
+        }
+    }
+
+    private class Invocation implements RequestEventListener {
+
+        private Thread thread;
+        private long start;
+        private ResourceMethod resourceMethod;
+        private volatile StackTraceElement[] stack;
+
+        @Override
+        public void onEvent(RequestEvent event) {
+            switch (event.getType()) {
+                case RESOURCE_METHOD_START:
+                    resourceMethod = event.getUriInfo().getMatchedResourceMethod();
+                    thread = Thread.currentThread();
+                    start = System.nanoTime();
+                    if (sampler != null) {
+                        inFlight.add(this);
+                    }
+                    break;
+                case RESOURCE_METHOD_FINISHED:
+                    if (resourceMethod == null) {
+                        break;
+                    }
+                    long nanos = System.nanoTime() - start;
+                    inFlight.remove(this);
+                    onInvocation(resourceMethod, nanos);
+                    if (thresholdNanos > 0 && nanos >= thresholdNanos) {
+                        onBlocked(resourceMethod, nanos, stack);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.jvnet.hk2.annotations.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jersey {@link MessageBodyReader} for {@link Buffer}, {@link JsonObject}, {@link JsonArray} and byte[] entities.
+ * <p>
+ * {@link JsonObject} and {@link JsonArray} are only read from json media types, and only when
+ * {@link #PROPERTY_READ_JSON} is enabled, so the reader does not compete with a configured json provider and its
+ * object mapper (such as the vertx-jersey-jackson feature).
+ * <p>
+ * When the body was aggregated by the {@link DefaultJerseyHandler}, the vert.x buffer is used as is instead of
+ * being read back through the entity stream.  Encoded bodies (Content-Encoding) always go through the stream so
+ * reader interceptors still apply.
+ */
+public class BufferBodyReader implements MessageBodyReader<Object> {
+
+    /**
+     * The jersey request property holding the {@link BufferInputStream} of an aggregated request body
+     */
+    public static final String PROPERTY_BODY = BufferBodyReader.class.getName() + ".body";
+
+    /**
+     * The configuration property enabling {@link JsonObject} and {@link JsonArray} entities (defaults to false)
+     */
+    public static final String PROPERTY_READ_JSON = BufferBodyReader.class.getName() + ".readJson";
+
+    private final Provider<ContainerRequest> requestProvider;
+    private final boolean readJson;
+
+    public BufferBodyReader(Provider<ContainerRequest> requestProvider) {
+        this(requestProvider, null);
+    }
+
+    @Inject
+    public BufferBodyReader(Provider<ContainerRequest> requestProvider, @Optional Configuration configuration) {
+        this.requestProvider = requestProvider;
+        this.readJson = (configuration != null && PropertiesHelper.isProperty(configuration.getProperty(PROPERTY_READ_JSON)));
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        if (type == Buffer.class || type == byte[].class) {
+            return true;
+        }
+        return readJson && (type == JsonObject.class || type == JsonArray.class) && isJson(mediaType);
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        if (mediaType == null) {
+            return false;
+        }
+        String subtype = mediaType.getSubtype();
+        return "application".equalsIgnoreCase(mediaType.getType())
+                && ("json".equalsIgnoreCase(subtype) || subtype.toLowerCase().endsWith("+json"));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException, WebApplicationException {
+
+        Buffer body = getBody(httpHeaders);
+
+        if (Buffer.class.equals(type)) {
+            return body != null ? body : readBuffer(entityStream);
+        }
+        if (byte[].class.equals(type)) {
+            return (body != null ? body : readBuffer(entityStream)).getBytes();
+        }
+
+        InputStream in = (body != null ? new ByteBufInputStream(body.getByteBuf()) : entityStream);
+
+        try {
+            if (JsonObject.class.equals(type)) {
+                return new JsonObject((Map<String, Object>) Json.mapper.readValue(in, Map.class));
+            } else {
+                return new JsonArray((List<Object>) Json.mapper.readValue(in, List.class));
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Failed to decode json: " + e.getMessage(), e);
+        }
+
+    }
+
+    private Buffer getBody(MultivaluedMap<String, String> httpHeaders) {
+
+        if (httpHeaders.getFirst(HttpHeaders.CONTENT_ENCODING) != null) {
+            return null;
+        }
+
+        ContainerRequest request = requestProvider.get();
+        Object property = (request == null ? null : request.getProperty(PROPERTY_BODY));
+
+        if (property instanceof BufferInputStream) {
+            BufferInputStream stream = (BufferInputStream) property;
+            if (stream.isUnread()) {
+                return stream.getBuffer();
+            }
+        }
+
+        return null;
+    }
+
+    private Buffer readBuffer(InputStream entityStream) throws IOException {
+        Buffer buffer = Buffer.buffer();
+        byte[] bytes = new byte[4096];
+        int read;
+        while ((read = entityStream.read(bytes)) != -1) {
+            buffer.appendBytes(bytes, 0, read);
+        }
+        return buffer;
+    }
+
+}
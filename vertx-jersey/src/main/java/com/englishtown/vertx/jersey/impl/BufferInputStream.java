@@ -0,0 +1,39 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * An {@link java.io.InputStream} view of an aggregated vert.x {@link Buffer} that reads the underlying
+ * netty buffer directly rather than a copied byte array.
+ * <p>
+ * The buffer is exposed so {@link BufferBodyReader} can skip the stream entirely.
+ */
+public class BufferInputStream extends ByteBufInputStream {
+
+    private final Buffer buffer;
+
+    public BufferInputStream(Buffer buffer) {
+        super(buffer.getByteBuf());
+        this.buffer = buffer;
+    }
+
+    /**
+     * Returns the aggregated request body
+     *
+     * @return the request body buffer
+     */
+    public Buffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Whether nothing has been read from the stream yet
+     *
+     * @return true if the stream is untouched
+     */
+    public boolean isUnread() {
+        return readBytes() == 0;
+    }
+
+}
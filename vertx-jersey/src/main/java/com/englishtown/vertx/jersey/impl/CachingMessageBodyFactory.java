@@ -0,0 +1,242 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.glassfish.jersey.internal.PropertiesDelegate;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.MessageBodyFactory;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.Parameter;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.jvnet.hk2.annotations.Optional;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link MessageBodyFactory} caching the reader and writer selected for an entity type, annotations and media type
+ * so repeated requests skip jersey's provider lookup.  The caches can be filled for every resource method when the
+ * application starts.  The factory belongs to one application handler, so a reload starts with empty caches.
+ * <p>
+ * Comparing annotation arrays by value calls the reflective equals and hashCode of the annotation proxies, so lookups
+ * go through a cache keyed by the identity of the array first.  Jersey passes the same array for every request to a
+ * resource method, only its first lookup compares annotations by value.
+ */
+public class CachingMessageBodyFactory extends MessageBodyFactory {
+
+    /**
+     * Max entries per cache, lookups for further keys (such as dynamic entity types) are not cached
+     */
+    public static final int MAX_CACHE_SIZE = 1024;
+
+    private final ConcurrentMap<Key, MessageBodyReader<?>> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, MessageBodyWriter<?>> writers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, MessageBodyReader<?>> readersByIdentity = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, MessageBodyWriter<?>> writersByIdentity = new ConcurrentHashMap<>();
+
+    @Inject
+    public CachingMessageBodyFactory(ServiceLocator locator, @Optional Configuration configuration) {
+        super(locator, configuration);
+    }
+
+    @Override
+    public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> c, Type t, Annotation[] as, MediaType mediaType,
+                                                         PropertiesDelegate propertiesDelegate) {
+        return getMessageBodyReader(c, t, as, mediaType, propertiesDelegate, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> MessageBodyReader<T> getMessageBodyReader(Class<T> c, Type t, Annotation[] as, MediaType mediaType,
+                                                          PropertiesDelegate propertiesDelegate, boolean byIdentity) {
+        Key identityKey = new Key(c, t, as, mediaType, true);
+        MessageBodyReader<?> reader = readersByIdentity.get(identityKey);
+        if (reader != null) {
+            return (MessageBodyReader<T>) reader;
+        }
+
+        Key key = new Key(c, t, as, mediaType, false);
+        reader = readers.get(key);
+        if (reader == null) {
+            reader = super.getMessageBodyReader(c, t, as, mediaType, propertiesDelegate);
+            if (reader != null && readers.size() < MAX_CACHE_SIZE) {
+                readers.putIfAbsent(key, reader);
+            }
+        }
+        if (reader != null && byIdentity) {
+            putIdentity(readersByIdentity, identityKey, reader);
+        }
+        return (MessageBodyReader<T>) reader;
+    }
+
+    @Override
+    public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> c, Type t, Annotation[] as, MediaType mediaType,
+                                                         PropertiesDelegate propertiesDelegate) {
+        return getMessageBodyWriter(c, t, as, mediaType, propertiesDelegate, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> c, Type t, Annotation[] as, MediaType mediaType,
+                                                          PropertiesDelegate propertiesDelegate, boolean byIdentity) {
+        Key identityKey = new Key(c, t, as, mediaType, true);
+        MessageBodyWriter<?> writer = writersByIdentity.get(identityKey);
+        if (writer != null) {
+            return (MessageBodyWriter<T>) writer;
+        }
+
+        Key key = new Key(c, t, as, mediaType, false);
+        writer = writers.get(key);
+        if (writer == null) {
+            writer = super.getMessageBodyWriter(c, t, as, mediaType, propertiesDelegate);
+            if (writer != null && writers.size() < MAX_CACHE_SIZE) {
+                writers.putIfAbsent(key, writer);
+            }
+        }
+        if (writer != null && byIdentity) {
+            putIdentity(writersByIdentity, identityKey, writer);
+        }
+        return (MessageBodyWriter<T>) writer;
+    }
+
+    private static <V> void putIdentity(ConcurrentMap<Key, V> cache, Key key, V value) {
+        // Like the value caches, further keys are not cached once full
+        if (cache.size() < MAX_CACHE_SIZE) {
+            cache.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Selects the reader for the entity parameter and the writer for the return type of every resource method and
+     * the media types it consumes and produces.  Only the value caches are filled, the annotation arrays read here
+     * are copies that jersey never passes.
+     *
+     * @param resourceModel the application resource model
+     */
+    public void precompute(ResourceModel resourceModel) {
+        if (resourceModel == null) {
+            return;
+        }
+        for (Resource resource : resourceModel.getRootResources()) {
+            precompute(resource);
+        }
+    }
+
+    private void precompute(Resource resource) {
+        for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+            precompute(resourceMethod);
+        }
+        for (Resource child : resource.getChildResources()) {
+            precompute(child);
+        }
+    }
+
+    private void precompute(ResourceMethod resourceMethod) {
+        Invocable invocable = resourceMethod.getInvocable();
+        if (invocable == null || invocable.getHandlingMethod() == null) {
+            return;
+        }
+
+        for (Parameter parameter : invocable.getParameters()) {
+            if (parameter.getSource() == Parameter.Source.ENTITY) {
+                for (MediaType mediaType : resourceMethod.getConsumedTypes()) {
+                    if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+                        getMessageBodyReader(parameter.getRawType(), parameter.getType(), parameter.getAnnotations(),
+                                mediaType, null, false);
+                    }
+                }
+            }
+        }
+
+        // Writers of Response entities and async responses are only known per request
+        Class<?> rawType = invocable.getRawResponseType();
+        if (rawType == null || rawType == void.class || rawType == Void.class || Response.class.isAssignableFrom(rawType)) {
+            return;
+        }
+        Annotation[] annotations = invocable.getHandlingMethod().getDeclaredAnnotations();
+        for (MediaType mediaType : resourceMethod.getProducedTypes()) {
+            if (!mediaType.isWildcardType() && !mediaType.isWildcardSubtype()) {
+                getMessageBodyWriter(rawType, invocable.getResponseType(), annotations, mediaType, null, false);
+            }
+        }
+    }
+
+    public int getReaderCacheSize() {
+        return readers.size();
+    }
+
+    public int getWriterCacheSize() {
+        return writers.size();
+    }
+
+    public int getWriterIdentityCacheSize() {
+        return writersByIdentity.size();
+    }
+
+    /**
+     * Binds the caching factory as the application's {@link MessageBodyWorkers}, ranked above jersey's own
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bindAsContract(CachingMessageBodyFactory.class)
+                    .to(MessageBodyWorkers.class)
+                    .in(Singleton.class)
+                    .ranked(10);
+        }
+    }
+
+    private static class Key {
+
+        private final Class<?> type;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final boolean identity;
+        private final int hash;
+
+        Key(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, boolean identity) {
+            this.type = type;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = mediaType;
+            this.identity = identity;
+            this.hash = Objects.hash(type, genericType, mediaType) * 31
+                    + (identity ? System.identityHashCode(annotations) : Arrays.hashCode(annotations));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash
+                    && type == other.type
+                    && Objects.equals(genericType, other.genericType)
+                    && Objects.equals(mediaType, other.mediaType)
+                    && identity == other.identity
+                    && (identity ? annotations == other.annotations : Arrays.equals(annotations, other.annotations));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Aggregates request body chunks into a netty {@link CompositeByteBuf}.
+ * <p>
+ * Received chunks are kept as components rather than copied into one growing buffer, so a large body is never
+ * re-copied as it grows.
+ */
+public class CompositeBufferAggregator {
+
+    private final CompositeByteBuf composite = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+
+    /**
+     * Appends a received chunk without copying it
+     *
+     * @param buffer the received chunk
+     * @return the aggregated length in bytes
+     */
+    public int append(Buffer buffer) {
+        ByteBuf byteBuf = buffer.getByteBuf();
+        int length = byteBuf.readableBytes();
+        if (length > 0) {
+            composite.addComponent(byteBuf);
+            composite.writerIndex(composite.writerIndex() + length);
+        }
+        return composite.readableBytes();
+    }
+
+    /**
+     * Returns the aggregated length in bytes
+     *
+     * @return the aggregated length
+     */
+    public int length() {
+        return composite.readableBytes();
+    }
+
+    /**
+     * Returns the aggregated chunks as a single vert.x buffer backed by the composite
+     *
+     * @return the aggregated buffer
+     */
+    public Buffer toBuffer() {
+        return Buffer.buffer(composite);
+    }
+
+    /**
+     * Returns an input stream view over the aggregated chunks
+     *
+     * @return the aggregated input stream
+     */
+    public BufferInputStream toInputStream() {
+        return new BufferInputStream(toBuffer());
+    }
+
+}
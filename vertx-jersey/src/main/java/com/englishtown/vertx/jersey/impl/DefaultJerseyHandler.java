@@ -24,16 +24,19 @@
 package com.englishtown.vertx.jersey.impl;
 
 import com.englishtown.vertx.jersey.ApplicationHandlerDelegate;
+import com.englishtown.vertx.jersey.ExecutionMode;
 import com.englishtown.vertx.jersey.JerseyHandler;
 import com.englishtown.vertx.jersey.JerseyOptions;
 import com.englishtown.vertx.jersey.VertxContainer;
 import com.englishtown.vertx.jersey.inject.ContainerResponseWriterProvider;
 import com.englishtown.vertx.jersey.inject.VertxRequestProcessor;
 import com.englishtown.vertx.jersey.security.DefaultSecurityContext;
+import io.netty.handler.codec.http.HttpHeaders.Names;
+import io.netty.handler.codec.http.HttpHeaders.Values;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import io.vertx.core.Handler;
-import io.vertx.core.buffer.Buffer;
+import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
@@ -43,12 +46,14 @@ import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.jersey.internal.MapPropertiesDelegate;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ExtendedResourceContext;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.UriBuilder;
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -63,6 +68,17 @@ public class DefaultJerseyHandler implements JerseyHandler {
     private VertxContainer container;
     private URI baseUri;
     private int maxBodySize;
+    private boolean streamRequestBody;
+    private int streamBufferSize;
+    private ExecutionMode executionMode = ExecutionMode.EVENT_LOOP;
+    private VirtualThreadExecutor virtualThreadExecutor;
+    private AdmissionController admissionController;
+    private int retryAfter = DefaultJerseyOptions.DEFAULT_RETRY_AFTER;
+    private ApplicationHandlerDelegate routePolicyDelegate;
+    private RoutePolicyIndex routePolicies = RoutePolicyIndex.EMPTY;
+    private RequestUriFactory requestUriFactory;
+    private RequestBodyRegistry requestBodyRegistry = new RequestBodyRegistry(
+            DefaultJerseyOptions.DEFAULT_REQUEST_BODY_METHODS, DefaultJerseyOptions.DEFAULT_REQUEST_BODY_MEDIA_TYPES);
 
     private final ContainerResponseWriterProvider responseWriterProvider;
     private final List<VertxRequestProcessor> requestProcessors;
@@ -90,7 +106,25 @@ public class DefaultJerseyHandler implements JerseyHandler {
     public void init(VertxContainer container) {
         this.container = container;
         baseUri = container.getOptions().getBaseUri();
+        requestUriFactory = new RequestUriFactory(container.getOptions().getSSL(), baseUri.getPath());
         maxBodySize = container.getOptions().getMaxBodySize();
+        streamRequestBody = container.getOptions().getStreamRequestBody();
+        streamBufferSize = container.getOptions().getStreamBufferSize();
+        if (streamBufferSize <= 0) {
+            streamBufferSize = DefaultJerseyOptions.DEFAULT_STREAM_BUFFER_SIZE;
+        }
+        requestBodyRegistry = createRequestBodyRegistry(container.getOptions());
+        if (container.getOptions().getExecutionMode() != null) {
+            executionMode = container.getOptions().getExecutionMode();
+        }
+        if (executionMode == ExecutionMode.VIRTUAL_THREAD) {
+            // Fail the start rather than the first request on JVMs without virtual threads
+            virtualThreadExecutor = new VirtualThreadExecutor();
+        }
+        admissionController = createAdmissionController(container.getOptions());
+        retryAfter = container.getOptions().getRetryAfter();
+        responseWriterProvider.init(container);
+        getRoutePolicies();
 
         logger.debug("DefaultJerseyHandler - initialized");
     }
@@ -119,55 +153,285 @@ public class DefaultJerseyHandler implements JerseyHandler {
     @Override
     public void handle(final HttpServerRequest vertxRequest) {
 
+        // Resolve the resource annotations once, they override the configured body handling and execution mode
+        final RoutePolicy policy = getRoutePolicy(vertxRequest);
+
+        if (admissionController == null) {
+            handleAdmitted(vertxRequest, policy, null);
+            return;
+        }
+
+        // Admit the request before reading any of its body, and hold the body back while the request is queued
+        vertxRequest.pause();
+        boolean accepted = admissionController.submit(() -> {
+            AdmissionController.Permit permit = admissionController.permit();
+            vertxRequest.resume();
+            handleAdmitted(vertxRequest, policy, permit);
+        }, () -> endServiceUnavailable(vertxRequest), container.getVertx().getOrCreateContext());
+
+        if (!accepted) {
+            endServiceUnavailable(vertxRequest);
+        }
+
+    }
+
+    /**
+     * Reads the body of an admitted request if needed and passes the request on to jersey
+     *
+     * @param vertxRequest the vert.x http server request
+     * @param policy       the route policy or null
+     * @param permit       the admission permit or null if requests are not limited
+     */
+    protected void handleAdmitted(final HttpServerRequest vertxRequest, final RoutePolicy policy,
+                                  final AdmissionController.Permit permit) {
+
+        if (permit != null) {
+            // Release the permit if the client goes away before the request reaches jersey
+            ResponseCloseHandler.install(vertxRequest.response()).add(aVoid -> permit.release());
+        }
+
         // Wait for the body for jersey to handle form/json/xml params
         if (shouldReadData(vertxRequest)) {
+            final int maxBodySize = (policy != null && policy.getMaxBodySize() != null
+                    ? policy.getMaxBodySize() : this.maxBodySize);
+            boolean streamBody = (policy != null && policy.getStreamBody() != null
+                    ? policy.getStreamBody() : streamRequestBody);
+
+            // Reject oversized bodies before reading any of them
+            if (!admitBody(vertxRequest, maxBodySize)) {
+                release(permit);
+                return;
+            }
+            if (streamBody) {
+                handleStreamed(vertxRequest, maxBodySize, policy, permit);
+                return;
+            }
             if (logger.isDebugEnabled()) {
                 logger.debug("DefaultJerseyHandler - handle request and read body: " + vertxRequest.method() + " " + vertxRequest.uri());
             }
-            final Buffer body = Buffer.buffer();
+            final CompositeBufferAggregator body = new CompositeBufferAggregator();
 
             vertxRequest.handler(buffer -> {
-                body.appendBuffer(buffer);
-                if (body.length() > maxBodySize) {
-                    throw new RuntimeException("The input stream has exceeded the max allowed body size "
-                            + maxBodySize + ".");
+                if (body.append(buffer) > maxBodySize) {
+                    logger.warn("The input stream has exceeded the max allowed body size " + maxBodySize + ".");
+                    vertxRequest.handler(null);
+                    vertxRequest.endHandler(null);
+                    endRequestEntityTooLarge(vertxRequest);
+                    release(permit);
                 }
             });
             vertxRequest.endHandler(aVoid -> {
-                InputStream inputStream = new ByteArrayInputStream(body.getBytes());
-                DefaultJerseyHandler.this.handle(vertxRequest, inputStream);
+                InputStream inputStream = body.toInputStream();
+                DefaultJerseyHandler.this.handle(vertxRequest, inputStream, policy, permit);
             });
 
         } else {
             if (logger.isDebugEnabled()) {
                 logger.debug("DefaultJerseyHandler - handle request: " + vertxRequest.method() + " " + vertxRequest.uri());
             }
-            DefaultJerseyHandler.this.handle(vertxRequest, null);
+            DefaultJerseyHandler.this.handle(vertxRequest, null, policy, permit);
+        }
+
+    }
+
+    private void release(AdmissionController.Permit permit) {
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    /**
+     * Returns the policy of the resource method the request is routed to
+     *
+     * @param vertxRequest the vert.x http server request
+     * @return the route policy or null if the resource method has none
+     */
+    protected RoutePolicy getRoutePolicy(HttpServerRequest vertxRequest) {
+
+        RoutePolicyIndex index = getRoutePolicies();
+        if (index.isEmpty()) {
+            return null;
+        }
+
+        String path = vertxRequest.path();
+        String basePath = baseUri.getPath();
+
+        if (path == null) {
+            return null;
+        }
+
+        // Resource paths are relative to the base path
+        if (basePath != null && basePath.length() > 1) {
+            if (basePath.endsWith("/")) {
+                basePath = basePath.substring(0, basePath.length() - 1);
+            }
+            if (!path.startsWith(basePath)) {
+                return null;
+            }
+            path = path.substring(basePath.length());
         }
 
+        return index.match(vertxRequest.method().name(), path.isEmpty() ? "/" : path);
     }
 
+    /**
+     * Returns the route policies of the current application handler, rebuilding them after a reload
+     *
+     * @return the route policy index
+     */
+    protected RoutePolicyIndex getRoutePolicies() {
+
+        ApplicationHandlerDelegate delegate = getDelegate();
+
+        if (delegate != routePolicyDelegate) {
+            RoutePolicyIndex index = RoutePolicyIndex.EMPTY;
+            if (delegate != null && delegate.getServiceLocator() != null) {
+                ExtendedResourceContext resourceContext = delegate.getServiceLocator().getService(ExtendedResourceContext.class);
+                if (resourceContext != null) {
+                    index = RoutePolicyIndex.build(resourceContext.getResourceModel());
+                }
+            }
+            routePolicies = index;
+            routePolicyDelegate = delegate;
+        }
+
+        return routePolicies;
+    }
+
+    /**
+     * Checks the declared Content-Length against the max body size before any of the body is read.
+     * vert.x 3.0 answers an {@code Expect: 100-continue} itself before the request reaches the handler, so the
+     * continue cannot be withheld, but the connection of a rejected request is closed before the body is read.
+     *
+     * @param vertxRequest the vert.x http server request
+     * @param maxBodySize  the max body size for the request
+     * @return true if the body should be read, false if the request was rejected
+     */
+    protected boolean admitBody(HttpServerRequest vertxRequest, int maxBodySize) {
+
+        MultiMap headers = vertxRequest.headers();
+        String contentLength = headers.get(HttpHeaders.CONTENT_LENGTH);
+
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > maxBodySize) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("DefaultJerseyHandler - rejecting request with content-length " + contentLength
+                                + " over the max allowed body size " + maxBodySize + ": " + vertxRequest.uri());
+                    }
+                    endRequestEntityTooLarge(vertxRequest);
+                    return false;
+                }
+            } catch (NumberFormatException e) {
+                // Leave invalid content lengths to the http codec
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Ends the request with a 413 and closes the connection so the rest of the body is never received
+     *
+     * @param vertxRequest the vert.x http server request
+     */
+    protected void endRequestEntityTooLarge(HttpServerRequest vertxRequest) {
+        HttpServerResponse response = vertxRequest.response();
+        response.setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code())
+                .setStatusMessage(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.reasonPhrase())
+                .putHeader(Names.CONNECTION, Values.CLOSE)
+                .end();
+        response.close();
+    }
+
+    /**
+     * Hands jersey a bounded input stream that is fed while the body arrives instead of buffering it first
+     *
+     * @param vertxRequest the vert.x http server request
+     * @param maxBodySize  the max body size for the request
+     * @param policy       the route policy or null
+     * @param permit       the admission permit or null
+     */
+    protected void handleStreamed(final HttpServerRequest vertxRequest, int maxBodySize, final RoutePolicy policy,
+                                  final AdmissionController.Permit permit) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("DefaultJerseyHandler - handle request and stream body: " + vertxRequest.method() + " " + vertxRequest.uri());
+        }
+
+        final ReadStreamInputStream inputStream = new ReadStreamInputStream(
+                vertxRequest,
+                container.getVertx().getOrCreateContext(),
+                maxBodySize,
+                streamBufferSize);
+
+        // Answer oversized bodies without a content-length the same as the buffered path
+        inputStream.bodyTooLargeHandler(aVoid -> {
+            logger.warn("The input stream has exceeded the max allowed body size " + maxBodySize + ".");
+            endRequestEntityTooLarge(vertxRequest);
+        });
+
+        handle(vertxRequest, inputStream, policy, permit);
+    }
+
+    /**
+     * @param vertxRequest the vert.x http server request
+     * @param inputStream  the request entity stream or null
+     * @deprecated Use overload with the {@link RoutePolicy} instead.
+     */
+    @Deprecated
     protected void handle(
             final HttpServerRequest vertxRequest,
             final InputStream inputStream
     ) {
+        handle(vertxRequest, inputStream, getRoutePolicy(vertxRequest));
+    }
 
-        URI uri = getAbsoluteURI(vertxRequest);
-        boolean isSecure = "https".equalsIgnoreCase(uri.getScheme());
+    protected void handle(
+            final HttpServerRequest vertxRequest,
+            final InputStream inputStream,
+            final RoutePolicy policy
+    ) {
+        handle(vertxRequest, inputStream, policy, null);
+    }
 
-        UriBuilder baseUriBuilder = UriBuilder.fromUri(uri)
-                .replacePath(baseUri.getPath())
-                .replaceQuery(null);
+    protected void handle(
+            final HttpServerRequest vertxRequest,
+            final InputStream inputStream,
+            final RoutePolicy policy,
+            final AdmissionController.Permit permit
+    ) {
+
+        URI uri = null;
+        URI requestBaseUri = null;
+
+        // Fast path building the uris from the Host header and a cached base uri
+        String hostAndPort = vertxRequest.headers().get(HttpHeaders.HOST);
+        if (hostAndPort != null) {
+            uri = requestUriFactory.createRequestUri(hostAndPort, vertxRequest.uri());
+            if (uri != null) {
+                requestBaseUri = requestUriFactory.getBaseUri(hostAndPort);
+            }
+        }
+
+        if (uri == null || requestBaseUri == null) {
+            uri = getAbsoluteURI(vertxRequest);
+            requestBaseUri = UriBuilder.fromUri(uri)
+                    .replacePath(baseUri.getPath())
+                    .replaceQuery(null)
+                    .build();
+        }
+
+        boolean isSecure = "https".equalsIgnoreCase(uri.getScheme());
 
         // Create the jersey request
         final ContainerRequest jerseyRequest = new ContainerRequest(
-                baseUriBuilder.build(),
+                requestBaseUri,
                 uri,
                 vertxRequest.method().name(),
                 new DefaultSecurityContext(isSecure),
                 new MapPropertiesDelegate());
 
-        handle(vertxRequest, inputStream, jerseyRequest);
+        handle(vertxRequest, inputStream, jerseyRequest, policy, permit);
 
     }
 
@@ -222,22 +486,58 @@ public class DefaultJerseyHandler implements JerseyHandler {
 
     }
 
+    /**
+     * @param vertxRequest  the vert.x http server request
+     * @param inputStream   the request entity stream or null
+     * @param jerseyRequest the jersey container request
+     * @deprecated Use overload with the {@link RoutePolicy} instead.
+     */
+    @Deprecated
     protected void handle(final HttpServerRequest vertxRequest,
                           final InputStream inputStream,
                           final ContainerRequest jerseyRequest) {
+        handle(vertxRequest, inputStream, jerseyRequest, getRoutePolicy(vertxRequest));
+    }
+
+    protected void handle(final HttpServerRequest vertxRequest,
+                          final InputStream inputStream,
+                          final ContainerRequest jerseyRequest,
+                          final RoutePolicy policy) {
+        handle(vertxRequest, inputStream, jerseyRequest, policy, null);
+    }
+
+    protected void handle(final HttpServerRequest vertxRequest,
+                          final InputStream inputStream,
+                          final ContainerRequest jerseyRequest,
+                          final RoutePolicy policy,
+                          final AdmissionController.Permit permit) {
+
+        // One close handler per response that the container's parts add to rather than replacing each other's
+        ResponseCloseHandler closeHandler = ResponseCloseHandler.get(jerseyRequest, vertxRequest.response());
+        if (inputStream instanceof ReadStreamInputStream) {
+            // Unblock a pending read if the client goes away
+            closeHandler.add(aVoid -> ((ReadStreamInputStream) inputStream).fail(new IOException("The connection was closed")));
+        }
 
         // Provide the vertx response writer
         jerseyRequest.setWriter(responseWriterProvider.get(vertxRequest, jerseyRequest));
+        if (permit != null) {
+            // Release the permit once jersey is done with the response, it replaced the close handler releasing it
+            jerseyRequest.setWriter(new TrackingResponseWriter(jerseyRequest.getResponseWriter(), permit::release));
+        }
 
         // Set entity stream if provided (form posts)
         if (inputStream != null) {
             jerseyRequest.setEntityStream(inputStream);
+            // Let the vert.x body reader use the aggregated buffer directly
+            if (inputStream instanceof BufferInputStream) {
+                jerseyRequest.setProperty(BufferBodyReader.PROPERTY_BODY, inputStream);
+            }
         }
 
-        // Copy headers
-        for (Map.Entry<String, String> header : vertxRequest.headers().entries()) {
-            jerseyRequest.getHeaders().add(header.getKey(), header.getValue());
-        }
+        // Copy headers straight from the vert.x headers rather than through an intermediate entries() list
+        final MultivaluedMap<String, String> jerseyHeaders = jerseyRequest.getHeaders();
+        vertxRequest.headers().forEach(header -> jerseyHeaders.add(header.getKey(), header.getValue()));
 
         // Set request scoped instances
         jerseyRequest.setRequestScopedInitializer(locator -> {
@@ -258,12 +558,96 @@ public class DefaultJerseyHandler implements JerseyHandler {
                 if (inputStream == null) {
                     vertxRequest.resume();
                 }
-                getDelegate().handle(jerseyRequest);
+                dispatch(vertxRequest, jerseyRequest, inputStream, policy);
             });
         } else {
+            dispatch(vertxRequest, jerseyRequest, inputStream, policy);
+        }
+
+    }
+
+    /**
+     * Ends the request with a 503 and a Retry-After header
+     *
+     * @param vertxRequest the vert.x http server request
+     */
+    protected void endServiceUnavailable(HttpServerRequest vertxRequest) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("DefaultJerseyHandler - rejecting request over the concurrency limit: " + vertxRequest.uri());
+        }
+        // The body was held back, let it drain without a handler so the connection can be reused
+        vertxRequest.resume();
+        vertxRequest.response()
+                .setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code())
+                .setStatusMessage(HttpResponseStatus.SERVICE_UNAVAILABLE.reasonPhrase())
+                .putHeader(Names.RETRY_AFTER, String.valueOf(retryAfter))
+                .end();
+    }
+
+    /**
+     * Passes the request to jersey on the event loop, a vert.x worker thread or a virtual thread depending on the
+     * execution mode
+     *
+     * @param vertxRequest  the vert.x http server request
+     * @param jerseyRequest the jersey container request
+     * @param inputStream   the request entity stream or null
+     * @param policy        the route policy or null
+     */
+    protected void dispatch(final HttpServerRequest vertxRequest, final ContainerRequest jerseyRequest,
+                            final InputStream inputStream, final RoutePolicy policy) {
+
+        ExecutionMode mode = getExecutionMode(inputStream, policy);
+
+        if (mode == ExecutionMode.EVENT_LOOP) {
+            getDelegate().handle(jerseyRequest);
+            return;
+        }
+
+        if (mode == ExecutionMode.VIRTUAL_THREAD) {
+            virtualThreadExecutor.execute(() -> {
+                try {
+                    getDelegate().handle(jerseyRequest);
+                } catch (Throwable t) {
+                    logger.error("Failed to handle request on a virtual thread: " + t.getMessage(), t);
+                }
+            });
+            return;
+        }
+
+        // Unordered so a slow resource does not hold up the other requests of the connection's context
+        container.getVertx().<Void>executeBlocking(future -> {
             getDelegate().handle(jerseyRequest);
+            future.complete();
+        }, false, result -> {
+            if (result.failed()) {
+                logger.error("Failed to handle request on a worker thread: " + result.cause().getMessage(), result.cause());
+            }
+        });
+
+    }
+
+    /**
+     * Returns where the request is handled.  Streamed entities block while reading, so those requests are always
+     * handled off the event loop to keep it free to receive the rest of the body.  Blocking requests use virtual
+     * threads when that is the configured mode, otherwise the worker pool.
+     *
+     * @param inputStream the request entity stream or null
+     * @param policy      the route policy or null
+     * @return the execution mode
+     */
+    protected ExecutionMode getExecutionMode(InputStream inputStream, RoutePolicy policy) {
+
+        ExecutionMode blockingMode = (executionMode == ExecutionMode.EVENT_LOOP ? ExecutionMode.WORKER : executionMode);
+
+        if (inputStream instanceof ReadStreamInputStream) {
+            return blockingMode;
         }
 
+        if (policy != null && policy.getBlocking() != null) {
+            return policy.getBlocking() ? blockingMode : ExecutionMode.EVENT_LOOP;
+        }
+
+        return executionMode;
     }
 
     protected void callVertxRequestProcessor(
@@ -294,6 +678,10 @@ public class DefaultJerseyHandler implements JerseyHandler {
             vertxRequest.response()
                     .setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code())
                     .end();
+            // Jersey will not commit the response, release the admission permit now
+            if (jerseyRequest.getResponseWriter() instanceof TrackingResponseWriter) {
+                ((TrackingResponseWriter) jerseyRequest.getResponseWriter()).release();
+            }
         }
 
     }
@@ -302,46 +690,68 @@ public class DefaultJerseyHandler implements JerseyHandler {
 
         HttpMethod method = vertxRequest.method();
 
-        // Only read input stream data for post/put methods
-        if (!(HttpMethod.POST == method || HttpMethod.PUT == method)) {
+        // Only read input stream data for the configured methods
+        if (!requestBodyRegistry.isBodyMethod(method)) {
             return false;
         }
 
         String contentType = vertxRequest.headers().get(HttpHeaders.CONTENT_TYPE);
 
-        if (contentType == null || contentType.isEmpty()) {
-            // Special handling for IE8 XDomainRequest where content-type is missing
-            // http://blogs.msdn.com/b/ieinternals/archive/2010/05/13/xdomainrequest-restrictions-limitations-and-workarounds.aspx
-            return true;
+        if (!requestBodyRegistry.shouldRead(method, contentType)) {
+            return false;
         }
 
-        MediaType mediaType = MediaType.valueOf(contentType);
+        if (contentType != null && !contentType.isEmpty()) {
+            MediaType mediaType = requestBodyRegistry.getContentType(contentType).getMediaType();
 
-        // Allow text/plain
-        if (MediaType.TEXT_PLAIN_TYPE.getType().equals(mediaType.getType())
-                && MediaType.TEXT_PLAIN_TYPE.getSubtype().equals(mediaType.getSubtype())) {
-            return true;
+            // Need to do some special handling for forms:
+            // Jersey doesn't properly handle when charset is included
+            if (MediaType.APPLICATION_FORM_URLENCODED_TYPE.isCompatible(mediaType)
+                    && !mediaType.getParameters().isEmpty()) {
+                vertxRequest.headers().remove(HttpHeaders.CONTENT_TYPE);
+                vertxRequest.headers().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
+            }
         }
 
-        // Only other media types accepted are application (will check subtypes next)
-        String applicationType = MediaType.APPLICATION_FORM_URLENCODED_TYPE.getType();
-        if (!applicationType.equalsIgnoreCase(mediaType.getType())) {
-            return false;
+        return true;
+    }
+
+    /**
+     * Creates the registry deciding which request bodies are read
+     *
+     * @param options the jersey options
+     * @return the request body registry
+     */
+    protected RequestBodyRegistry createRequestBodyRegistry(JerseyOptions options) {
+        return new RequestBodyRegistry(options.getRequestBodyMethods(), options.getRequestBodyMediaTypes());
+    }
+
+    /**
+     * Creates the admission controller limiting the requests passed to jersey at once
+     *
+     * @param options the jersey options
+     * @return the admission controller or null if requests are not limited
+     */
+    protected AdmissionController createAdmissionController(JerseyOptions options) {
+
+        int maxConcurrentRequests = options.getMaxConcurrentRequests();
+        int globalLimit = options.getMaxConcurrentRequestsGlobal();
+
+        if (maxConcurrentRequests <= 0 && globalLimit <= 0) {
+            return null;
         }
 
-        // Need to do some special handling for forms:
-        // Jersey doesn't properly handle when charset is included
-        if (mediaType.getSubtype().equalsIgnoreCase(MediaType.APPLICATION_FORM_URLENCODED_TYPE.getSubtype())) {
-            if (!mediaType.getParameters().isEmpty()) {
-                vertxRequest.headers().remove(HttpHeaders.CONTENT_TYPE);
-                vertxRequest.headers().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
-            }
-            return true;
+        AdmissionController.Limit limit;
+        if (maxConcurrentRequests <= 0) {
+            limit = new AdmissionController.StaticLimit(Integer.MAX_VALUE);
+        } else if (options.getAdaptiveConcurrencyLimit()) {
+            limit = new AdmissionController.AimdLimit(maxConcurrentRequests, options.getConcurrencyLatencyTarget());
+        } else {
+            limit = new AdmissionController.StaticLimit(maxConcurrentRequests);
         }
 
-        // Also accept json/xml sub types
-        return MediaType.APPLICATION_JSON_TYPE.getSubtype().equalsIgnoreCase(mediaType.getSubtype())
-                || MediaType.APPLICATION_XML_TYPE.getSubtype().equalsIgnoreCase(mediaType.getSubtype());
+        return new AdmissionController(limit, globalLimit, options.getMaxQueuedRequests(), options.getQueueTimeout(),
+                AdmissionController.SharedStats.get(container.getVertx()), container.getVertx());
     }
 
 }
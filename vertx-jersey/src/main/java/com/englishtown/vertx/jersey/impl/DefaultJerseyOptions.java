@@ -24,11 +24,13 @@
 package com.englishtown.vertx.jersey.impl;
 
 import com.englishtown.vertx.jersey.ApplicationHandlerDelegate;
+import com.englishtown.vertx.jersey.ExecutionMode;
 import com.englishtown.vertx.jersey.JerseyOptions;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.JksOptions;
 
+import javax.ws.rs.core.MediaType;
 import java.net.URI;
 import java.util.*;
 import java.util.function.Consumer;
@@ -46,6 +48,29 @@ public class DefaultJerseyOptions implements JerseyOptions {
     final static String CONFIG_BACKLOG_SIZE = "backlog_size";
     final static String CONFIG_RESOURCE_CONFIG = "resource_config";
     final static String CONFIG_COMPRESSION_SUPPORTED = "compression_supported";
+    final static String CONFIG_STREAM_REQUEST_BODY = "stream_request_body";
+    final static String CONFIG_STREAM_BUFFER_SIZE = "stream_buffer_size";
+    final static String CONFIG_REQUEST_BODY_METHODS = "request_body_methods";
+    final static String CONFIG_REQUEST_BODY_MEDIA_TYPES = "request_body_media_types";
+    final static String CONFIG_CHUNK_FLUSH_SIZE = "chunk_flush_size";
+    final static String CONFIG_CHUNK_FLUSH_INTERVAL = "chunk_flush_interval";
+    final static String CONFIG_WRITE_QUEUE_MAX_SIZE = "write_queue_max_size";
+    final static String CONFIG_EXECUTION_MODE = "execution_mode";
+    final static String CONFIG_BLOCKED_TIME_THRESHOLD = "blocked_time_threshold";
+    final static String CONFIG_BLOCKED_TIME_SAMPLE_STACKS = "blocked_time_sample_stacks";
+    final static String CONFIG_MAX_CONCURRENT_REQUESTS = "max_concurrent_requests";
+    final static String CONFIG_MAX_CONCURRENT_REQUESTS_GLOBAL = "max_concurrent_requests_global";
+    final static String CONFIG_MAX_QUEUED_REQUESTS = "max_queued_requests";
+    final static String CONFIG_QUEUE_TIMEOUT = "queue_timeout";
+    final static String CONFIG_ADAPTIVE_CONCURRENCY_LIMIT = "adaptive_concurrency_limit";
+    final static String CONFIG_CONCURRENCY_LATENCY_TARGET = "concurrency_latency_target";
+    final static String CONFIG_RETRY_AFTER = "retry_after";
+    final static String CONFIG_SHARE_APPLICATION_HANDLER = "share_application_handler";
+    final static String CONFIG_USE_RESOURCE_INDEX = "use_resource_index";
+    final static String CONFIG_RELOAD_DRAIN_TIMEOUT = "reload_drain_timeout";
+    final static String CONFIG_WARM_UP_PATHS = "warm_up_paths";
+    final static String CONFIG_WARM_UP_ITERATIONS = "warm_up_iterations";
+    final static String CONFIG_PRECOMPUTE_MESSAGE_BODIES = "precompute_message_bodies";
 
     public static final String CONFIG_BASE_PATH = "base_path";
     public static final String CONFIG_MAX_BODY_SIZE = "max_body_size";
@@ -56,6 +81,19 @@ public class DefaultJerseyOptions implements JerseyOptions {
     public static final String CONFIG_BINDERS = "binders";
     public static final String CONFIG_INSTANCES = "instances";
     public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1000; // Default max body size to 1MB
+    public static final int DEFAULT_STREAM_BUFFER_SIZE = 64 * 1024; // Default stream buffer size to 64KB
+    public static final int DEFAULT_CHUNK_FLUSH_SIZE = 8 * 1024; // Default chunk flush size to 8KB
+    public static final int DEFAULT_CONCURRENCY_LATENCY_TARGET = 100; // Default adaptive limit latency target to 100ms
+    public static final int DEFAULT_RETRY_AFTER = 1; // Default Retry-After to 1 second
+    public static final int DEFAULT_QUEUE_TIMEOUT = 5000; // Default queued request timeout to 5 seconds
+    public static final int DEFAULT_RELOAD_DRAIN_TIMEOUT = 30000; // Default reload drain timeout to 30 seconds
+    public static final List<String> DEFAULT_REQUEST_BODY_METHODS = Collections.unmodifiableList(Arrays.asList(
+            "POST", "PUT", "PATCH"));
+    public static final List<String> DEFAULT_REQUEST_BODY_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+            MediaType.TEXT_PLAIN,
+            MediaType.APPLICATION_FORM_URLENCODED,
+            MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_XML));
 
     private JsonObject config;
 
@@ -284,6 +322,286 @@ public class DefaultJerseyOptions implements JerseyOptions {
         return config.getBoolean(CONFIG_COMPRESSION_SUPPORTED, false);
     }
 
+    /**
+     * Gets whether request bodies are streamed to jersey while they arrive rather than buffered first (defaults to false)
+     *
+     * @return whether request bodies are streamed
+     */
+    @Override
+    public boolean getStreamRequestBody() {
+        checkState();
+        return config.getBoolean(CONFIG_STREAM_REQUEST_BODY, false);
+    }
+
+    /**
+     * The number of request body bytes buffered before the vert.x request is paused when streaming
+     *
+     * @return the stream buffer size in bytes
+     */
+    @Override
+    public int getStreamBufferSize() {
+        checkState();
+        return config.getInteger(CONFIG_STREAM_BUFFER_SIZE, DEFAULT_STREAM_BUFFER_SIZE);
+    }
+
+    /**
+     * The http methods whose request bodies are read and passed to jersey (defaults to POST, PUT and PATCH)
+     *
+     * @return list of http method names
+     */
+    @Override
+    public List<String> getRequestBodyMethods() {
+        checkState();
+        return getStringList(CONFIG_REQUEST_BODY_METHODS, DEFAULT_REQUEST_BODY_METHODS);
+    }
+
+    /**
+     * The content types whose request bodies are read and passed to jersey.  Wildcards such as {@code application/*}
+     * are supported.  Requests without a content type are always read.
+     *
+     * @return list of media types
+     */
+    @Override
+    public List<String> getRequestBodyMediaTypes() {
+        checkState();
+        return getStringList(CONFIG_REQUEST_BODY_MEDIA_TYPES, DEFAULT_REQUEST_BODY_MEDIA_TYPES);
+    }
+
+    /**
+     * The number of bytes written to a chunked response before they are sent as a chunk.  Smaller writes are
+     * coalesced until the threshold, a flush or the flush interval is reached.  A value of 0 sends every write.
+     *
+     * @return the chunk flush size in bytes
+     */
+    @Override
+    public int getChunkFlushSize() {
+        checkState();
+        return config.getInteger(CONFIG_CHUNK_FLUSH_SIZE, DEFAULT_CHUNK_FLUSH_SIZE);
+    }
+
+    /**
+     * The max number of milliseconds coalesced chunked response data is held before it is sent (defaults to 0, only
+     * send on the flush size, a flush or close)
+     *
+     * @return the chunk flush interval in milliseconds
+     */
+    @Override
+    public int getChunkFlushInterval() {
+        checkState();
+        return config.getInteger(CONFIG_CHUNK_FLUSH_INTERVAL, 0);
+    }
+
+    /**
+     * The max size of the response write queue for chunked and write stream responses before writers running off the
+     * event loop are suspended (defaults to 0, the vert.x default)
+     *
+     * @return the write queue max size in bytes
+     */
+    @Override
+    public int getWriteQueueMaxSize() {
+        checkState();
+        return config.getInteger(CONFIG_WRITE_QUEUE_MAX_SIZE, 0);
+    }
+
+    /**
+     * Where jersey resource methods are invoked (defaults to {@link ExecutionMode#EVENT_LOOP}).  Resources can
+     * override the mode with the {@link com.englishtown.vertx.jersey.Blocking} annotation.
+     *
+     * @return the execution mode
+     */
+    @Override
+    public ExecutionMode getExecutionMode() {
+        checkState();
+        String mode = config.getString(CONFIG_EXECUTION_MODE);
+        return (mode == null ? ExecutionMode.EVENT_LOOP : ExecutionMode.valueOf(mode.toUpperCase()));
+    }
+
+    /**
+     * The time in milliseconds a resource method may run on the event loop before it is reported as blocking
+     * (defaults to 0, disabled)
+     *
+     * @return the blocked time threshold in milliseconds
+     */
+    @Override
+    public int getBlockedTimeThreshold() {
+        checkState();
+        return config.getInteger(CONFIG_BLOCKED_TIME_THRESHOLD, 0);
+    }
+
+    /**
+     * Gets whether stacks of resource methods blocking the event loop past the threshold are sampled and logged
+     * (defaults to false)
+     *
+     * @return whether blocked stacks are sampled
+     */
+    @Override
+    public boolean getBlockedTimeSampleStacks() {
+        checkState();
+        return config.getBoolean(CONFIG_BLOCKED_TIME_SAMPLE_STACKS, false);
+    }
+
+    /**
+     * The max number of requests a verticle instance passes to jersey at once, 0 for no limit (defaults to 0).
+     * This is the ceiling of the limit when it is adaptive.
+     *
+     * @return the max concurrent requests
+     */
+    @Override
+    public int getMaxConcurrentRequests() {
+        checkState();
+        return config.getInteger(CONFIG_MAX_CONCURRENT_REQUESTS, 0);
+    }
+
+    /**
+     * The max number of requests passed to jersey at once across all verticle instances, 0 for no limit (defaults to 0)
+     *
+     * @return the global max concurrent requests
+     */
+    @Override
+    public int getMaxConcurrentRequestsGlobal() {
+        checkState();
+        return config.getInteger(CONFIG_MAX_CONCURRENT_REQUESTS_GLOBAL, 0);
+    }
+
+    /**
+     * The max number of requests over the concurrency limit queued per verticle instance before requests are rejected
+     * (defaults to 0)
+     *
+     * @return the max queued requests
+     */
+    @Override
+    public int getMaxQueuedRequests() {
+        checkState();
+        return config.getInteger(CONFIG_MAX_QUEUED_REQUESTS, 0);
+    }
+
+    /**
+     * The max milliseconds a request waits in the queue before it is rejected, 0 for no timeout (defaults to 5000)
+     *
+     * @return the queue timeout in milliseconds
+     */
+    @Override
+    public int getQueueTimeout() {
+        checkState();
+        return config.getInteger(CONFIG_QUEUE_TIMEOUT, DEFAULT_QUEUE_TIMEOUT);
+    }
+
+    /**
+     * Gets whether the concurrency limit adapts to request latency (AIMD) rather than being static (defaults to false)
+     *
+     * @return whether the concurrency limit is adaptive
+     */
+    @Override
+    public boolean getAdaptiveConcurrencyLimit() {
+        checkState();
+        return config.getBoolean(CONFIG_ADAPTIVE_CONCURRENCY_LIMIT, false);
+    }
+
+    /**
+     * The request latency in milliseconds above which an adaptive concurrency limit is decreased (defaults to 100)
+     *
+     * @return the latency target in milliseconds
+     */
+    @Override
+    public int getConcurrencyLatencyTarget() {
+        checkState();
+        return config.getInteger(CONFIG_CONCURRENCY_LATENCY_TARGET, DEFAULT_CONCURRENCY_LATENCY_TARGET);
+    }
+
+    /**
+     * The Retry-After seconds sent with a 503 when a request is rejected (defaults to 1)
+     *
+     * @return the retry after seconds
+     */
+    @Override
+    public int getRetryAfter() {
+        checkState();
+        return config.getInteger(CONFIG_RETRY_AFTER, DEFAULT_RETRY_AFTER);
+    }
+
+    /**
+     * Gets whether verticle instances with the same configuration share one jersey application handler (defaults to
+     * false)
+     *
+     * @return whether the application handler is shared
+     */
+    @Override
+    public boolean getShareApplicationHandler() {
+        checkState();
+        return config.getBoolean(CONFIG_SHARE_APPLICATION_HANDLER, false);
+    }
+
+    /**
+     * Gets whether resources and providers are registered from the index written at build time rather than by
+     * scanning the packages (defaults to false)
+     *
+     * @return whether the resource index is used
+     */
+    @Override
+    public boolean getUseResourceIndex() {
+        checkState();
+        return config.getBoolean(CONFIG_USE_RESOURCE_INDEX, false);
+    }
+
+    /**
+     * The max number of milliseconds a reload waits for the in-flight requests of the replaced application before
+     * shutting it down, 0 to wait until they finish (defaults to 30000)
+     *
+     * @return the reload drain timeout in milliseconds
+     */
+    @Override
+    public int getReloadDrainTimeout() {
+        checkState();
+        return config.getInteger(CONFIG_RELOAD_DRAIN_TIMEOUT, DEFAULT_RELOAD_DRAIN_TIMEOUT);
+    }
+
+    /**
+     * The paths requested through jersey before the http server listens to warm it up, each {@code [METHOD ]path}
+     * or {@code *} for every GET resource method without path parameters (defaults to none)
+     *
+     * @return list of warm-up paths
+     */
+    @Override
+    public List<String> getWarmUpPaths() {
+        checkState();
+        return getStringList(CONFIG_WARM_UP_PATHS, Collections.emptyList());
+    }
+
+    /**
+     * The number of times each warm-up path is requested (defaults to 1)
+     *
+     * @return the warm-up iterations
+     */
+    @Override
+    public int getWarmUpIterations() {
+        checkState();
+        return config.getInteger(CONFIG_WARM_UP_ITERATIONS, 1);
+    }
+
+    /**
+     * Gets whether the message body reader and writer selected for each resource method are computed at startup and
+     * cached (defaults to false)
+     *
+     * @return whether message body selection is precomputed
+     */
+    @Override
+    public boolean getPrecomputeMessageBodies() {
+        checkState();
+        return config.getBoolean(CONFIG_PRECOMPUTE_MESSAGE_BODIES, false);
+    }
+
+    private List<String> getStringList(String key, List<String> defaultValue) {
+        JsonArray array = config.getJsonArray(key, null);
+        if (array == null) {
+            return defaultValue;
+        }
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < array.size(); i++) {
+            list.add(array.getString(i));
+        }
+        return list;
+    }
+
     private void checkState() {
         if (config == null) {
             throw new IllegalStateException("The jersey options have not been initialized.");
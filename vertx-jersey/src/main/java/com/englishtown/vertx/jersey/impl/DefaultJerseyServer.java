@@ -28,14 +28,17 @@ import com.englishtown.vertx.jersey.JerseyOptions;
 import com.englishtown.vertx.jersey.JerseyServer;
 import com.englishtown.vertx.jersey.VertxContainer;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import org.glassfish.hk2.api.ServiceLocatorFactory;
+import org.glassfish.jersey.server.ApplicationHandler;
 
 import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Default implementation of {@link JerseyServer}
@@ -96,6 +99,57 @@ public class DefaultJerseyServer implements JerseyServer {
             setupHandler.handle(server);
         }
 
+        // Warm up jersey off the event loop before listening.  Instances sharing an application handler warm it up
+        // once, the others listen when it is done.
+        List<String> warmUpPaths = options.getWarmUpPaths();
+        if (warmUpPaths != null && !warmUpPaths.isEmpty()) {
+            Context context = container.getVertx().getOrCreateContext();
+            ApplicationWarmUp.SharedStats stats = ApplicationWarmUp.SharedStats.get(container.getVertx());
+            Handler<Void> warmedUp = v -> context.runOnContext(aVoid -> listen(options, serverOptions, doneHandler));
+            if (stats.start(container.getApplicationHandler(), warmedUp)) {
+                warmUp(options, warmUpPaths, ar -> listen(options, serverOptions, doneHandler));
+            }
+        } else {
+            listen(options, serverOptions, doneHandler);
+        }
+
+    }
+
+    /**
+     * Sends the warm-up requests through jersey on a worker thread and records how long they took
+     *
+     * @param options     the jersey options
+     * @param paths       the warm-up paths
+     * @param doneHandler the handler invoked once the warm-up is done
+     */
+    protected void warmUp(JerseyOptions options, List<String> paths, Handler<AsyncResult<Void>> doneHandler) {
+        ApplicationHandler applicationHandler = container.getApplicationHandler();
+        ApplicationWarmUp.SharedStats stats = ApplicationWarmUp.SharedStats.get(container.getVertx());
+        ApplicationWarmUp warmUp = new ApplicationWarmUp(
+                applicationHandler,
+                options.getBaseUri(),
+                paths,
+                options.getWarmUpIterations());
+
+        container.getVertx().<Void>executeBlocking(future -> {
+            long start = System.nanoTime();
+            int requests = warmUp.run();
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            stats.record(duration, requests);
+            logger.info("Jersey warm-up of " + requests + " requests took " + duration + "ms");
+            future.complete();
+        }, false, ar -> {
+            if (ar.failed()) {
+                logger.error("Jersey warm-up failed", ar.cause());
+            }
+            stats.finish(applicationHandler);
+            doneHandler.handle(ar);
+        });
+    }
+
+    private void listen(JerseyOptions options, HttpServerOptions serverOptions, Handler<AsyncResult<HttpServer>> doneHandler) {
+
         // Start listening and log success/failure
         server.listen(ar -> {
             final String listenPath = (options.getSSL() ? "https" : "http") + "://" + serverOptions.getHost() + ":" + serverOptions.getPort();
@@ -146,16 +200,12 @@ public class DefaultJerseyServer implements JerseyServer {
      */
     @Override
     public void close() {
-        // Run jersey shutdown lifecycle
+        // Run jersey shutdown lifecycle and destroy the jersey service locator
         if (container != null) {
-            container.getApplicationHandler().onShutdown(container);
+            container.stop();
             container = null;
         }
-        // Destroy the jersey service locator
-        if (jerseyHandler != null && jerseyHandler.getDelegate() != null) {
-            ServiceLocatorFactory.getInstance().destroy(jerseyHandler.getDelegate().getServiceLocator());
-            jerseyHandler = null;
-        }
+        jerseyHandler = null;
         if (server != null) {
             server.close();
             server = null;
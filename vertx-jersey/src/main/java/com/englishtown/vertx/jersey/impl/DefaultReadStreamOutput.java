@@ -0,0 +1,107 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.englishtown.vertx.jersey.ReadStreamOutput;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.Pump;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Default implementation of {@link com.englishtown.vertx.jersey.ReadStreamOutput} using a vert.x {@link Pump}.
+ * {@link AsyncFile} read streams are closed once pumped, other read streams are paused if the pump fails or is
+ * stopped.
+ */
+public class DefaultReadStreamOutput implements ReadStreamOutput {
+
+    private final ReadStream<Buffer> readStream;
+    private final long length;
+    private Handler<AsyncResult<Void>> complete;
+
+    /**
+     * Creates a read stream output of unknown length, the response will be chunked
+     *
+     * @param readStream the read stream providing the response body
+     */
+    public DefaultReadStreamOutput(ReadStream<Buffer> readStream) {
+        this(readStream, -1);
+    }
+
+    /**
+     * @param readStream the read stream providing the response body
+     * @param length     the number of bytes the read stream provides or -1 if unknown
+     */
+    public DefaultReadStreamOutput(ReadStream<Buffer> readStream, long length) {
+        if (readStream == null) {
+            throw new IllegalArgumentException("readStream cannot be null");
+        }
+        this.readStream = readStream;
+        this.length = length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ReadStream<Buffer> getReadStream() {
+        return readStream;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void pump(HttpServerResponse response, Handler<AsyncResult<Void>> doneHandler) {
+
+        Pump pump = Pump.pump(readStream, response);
+        AtomicBoolean done = new AtomicBoolean();
+
+        Handler<AsyncResult<Void>> complete = result -> {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            pump.stop();
+            // The read stream handlers are owned by the pump, so close files here
+            if (readStream instanceof AsyncFile) {
+                ((AsyncFile) readStream).close();
+            } else if (result.failed()) {
+                // Stop the source producing data nobody will read
+                readStream.pause();
+            }
+            doneHandler.handle(result);
+        };
+        this.complete = complete;
+
+        // Response errors close the connection, which stops the pump, so the response exception handler is left to
+        // the application
+        readStream.endHandler(aVoid -> complete.handle(Future.succeededFuture()));
+        readStream.exceptionHandler(t -> complete.handle(Future.failedFuture(t)));
+
+        pump.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop(Throwable error) {
+        Handler<AsyncResult<Void>> complete = this.complete;
+        if (complete != null) {
+            complete.handle(Future.failedFuture(error));
+        }
+    }
+
+}
@@ -4,9 +4,15 @@ import com.englishtown.vertx.jersey.ApplicationHandlerDelegate;
 import com.englishtown.vertx.jersey.JerseyOptions;
 import com.englishtown.vertx.jersey.VertxContainer;
 import com.englishtown.vertx.jersey.inject.InternalVertxJerseyBinder;
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
 import org.glassfish.hk2.api.ServiceLocator;
+import org.glassfish.hk2.api.ServiceLocatorFactory;
+import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ExtendedResourceContext;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.spi.Container;
 import org.jvnet.hk2.annotations.Optional;
@@ -15,16 +21,21 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Vert.x implementation of {@link Container}
  */
 public class DefaultVertxContainer implements VertxContainer {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultVertxContainer.class);
+
     private final Vertx vertx;
     private final ServiceLocator locator;
     private JerseyOptions options;
-    private ApplicationHandlerDelegate applicationHandlerDelegate;
+    private volatile DrainingApplicationHandlerDelegate applicationHandlerDelegate;
+    private SharedApplicationHandler sharedApplicationHandler;
 
     @Inject
     public DefaultVertxContainer(Vertx vertx, @Optional ServiceLocator locator) {
@@ -35,10 +46,33 @@ public class DefaultVertxContainer implements VertxContainer {
     @Override
     public void init(JerseyOptions options) {
         this.options = options;
-        ResourceConfig rc = createConfiguration();
-        ApplicationHandler applicationHandler = new ApplicationHandler(rc, null, locator);
-        applicationHandler.onStartup(this);
-        applicationHandlerDelegate = new DefaultApplicationHandlerDelegate(applicationHandler);
+        ApplicationHandler applicationHandler;
+        if (options.getShareApplicationHandler()) {
+            // The first container with this configuration builds the jersey runtime, later ones reuse it
+            sharedApplicationHandler = SharedApplicationHandler.get(vertx, getSharingKey());
+            applicationHandler = sharedApplicationHandler.acquire(this::createApplicationHandler);
+        } else {
+            applicationHandler = createApplicationHandler();
+        }
+        applicationHandlerDelegate = new DrainingApplicationHandlerDelegate(applicationHandler);
+    }
+
+    /**
+     * Runs the jersey shutdown lifecycle and destroys the jersey service locator.  A shared application handler is
+     * only shut down by the last container using it.
+     */
+    @Override
+    public void stop() {
+        if (sharedApplicationHandler != null) {
+            ApplicationHandler applicationHandler = sharedApplicationHandler.release();
+            sharedApplicationHandler = null;
+            if (applicationHandler == null) {
+                return;
+            }
+        }
+        if (applicationHandlerDelegate != null) {
+            shutdown(applicationHandlerDelegate.getApplicationHandler());
+        }
     }
 
     /**
@@ -94,16 +128,147 @@ public class DefaultVertxContainer implements VertxContainer {
 
     /**
      * Reload the hosted Jersey application using a new {@link ResourceConfig
-     * configuration}.
+     * configuration}.  The new application handler is built off the event loop and replaces the current one once
+     * started, the current one is shut down after its in-flight requests finish.
      *
      * @param configuration new configuration used for the reload.
      */
     @Override
     public void reload(ResourceConfig configuration) {
+        if (!Context.isOnEventLoopThread()) {
+            publish(startApplicationHandler(configuration));
+            return;
+        }
+
+        vertx.<ApplicationHandler>executeBlocking(future -> future.complete(startApplicationHandler(configuration)), false, result -> {
+            if (result.succeeded()) {
+                publish(result.result());
+            } else {
+                logger.error("Failed to reload the jersey application: " + result.cause().getMessage(), result.cause());
+            }
+        });
+    }
+
+    private ApplicationHandler startApplicationHandler(ResourceConfig configuration) {
         ApplicationHandler applicationHandler = new ApplicationHandler(configuration, null, locator);
-        getApplicationHandler().onReload(this);
+        applicationHandler.onReload(this);
+        applicationHandler.onStartup(this);
+        precomputeMessageBodies(applicationHandler);
+        return applicationHandler;
+    }
+
+    /**
+     * Fills the message body reader and writer caches for every resource method when the application uses the
+     * {@link CachingMessageBodyFactory}
+     */
+    private void precomputeMessageBodies(ApplicationHandler applicationHandler) {
+        ServiceLocator serviceLocator = applicationHandler.getServiceLocator();
+        MessageBodyWorkers workers = serviceLocator.getService(MessageBodyWorkers.class);
+        if (workers instanceof CachingMessageBodyFactory) {
+            ExtendedResourceContext resourceContext = serviceLocator.getService(ExtendedResourceContext.class);
+            if (resourceContext != null) {
+                ((CachingMessageBodyFactory) workers).precompute(resourceContext.getResourceModel());
+            }
+        }
+    }
+
+    /**
+     * Swaps in the new application handler and retires the previous one once its in-flight requests have finished
+     * or the drain timeout expires
+     */
+    private synchronized void publish(ApplicationHandler applicationHandler) {
+        DrainingApplicationHandlerDelegate previous = applicationHandlerDelegate;
+        applicationHandlerDelegate = new DrainingApplicationHandlerDelegate(applicationHandler);
+
+        if (sharedApplicationHandler != null) {
+            // The reloaded application is no longer shared, only the last container retires the shared one
+            boolean last = sharedApplicationHandler.release() != null;
+            sharedApplicationHandler = null;
+            if (!last) {
+                return;
+            }
+        }
+        if (previous == null) {
+            return;
+        }
+
+        AtomicBoolean retired = new AtomicBoolean();
+        Runnable retire = () -> {
+            if (retired.compareAndSet(false, true)) {
+                vertx.<Void>executeBlocking(future -> {
+                    shutdown(previous.getApplicationHandler());
+                    future.complete();
+                }, false, result -> {
+                    if (result.failed()) {
+                        logger.error("Failed to shut down the reloaded jersey application: " + result.cause().getMessage(), result.cause());
+                    }
+                });
+            }
+        };
+
+        int timeout = options == null ? DefaultJerseyOptions.DEFAULT_RELOAD_DRAIN_TIMEOUT : options.getReloadDrainTimeout();
+        if (timeout > 0) {
+            vertx.setTimer(timeout, id -> {
+                if (previous.getInFlight() > 0) {
+                    logger.warn("Shutting down the reloaded jersey application with " + previous.getInFlight()
+                            + " requests still in flight after " + timeout + "ms");
+                }
+                retire.run();
+            });
+        }
+        previous.drain(retire);
+    }
+
+    private void shutdown(ApplicationHandler applicationHandler) {
+        applicationHandler.onShutdown(this);
+        ServiceLocatorFactory.getInstance().destroy(applicationHandler.getServiceLocator());
+    }
+
+    /**
+     * Builds and starts a jersey application handler for the current options
+     *
+     * @return the started application handler
+     */
+    protected ApplicationHandler createApplicationHandler() {
+        ResourceConfig rc = createConfiguration();
+        ApplicationHandler applicationHandler = new ApplicationHandler(rc, null, locator);
         applicationHandler.onStartup(this);
-        applicationHandlerDelegate = new DefaultApplicationHandlerDelegate(applicationHandler);
+        precomputeMessageBodies(applicationHandler);
+        return applicationHandler;
+    }
+
+    /**
+     * Returns the key containers share an application handler by, containers with the same parent service locator,
+     * base path, packages, components, instance classes and properties share one.  Instances are compared by class,
+     * options such as {@link DefaultJerseyOptions} create new instances of the configured binders on every call.
+     *
+     * @return the sharing key
+     */
+    protected String getSharingKey() {
+        StringBuilder key = new StringBuilder()
+                .append(locator == null ? "" : locator.getName() + '@' + locator.getLocatorId())
+                .append('|').append(options.getBaseUri())
+                .append('|').append(options.getPackages());
+
+        key.append('|');
+        Set<Class<?>> components = options.getComponents();
+        if (components != null) {
+            components.stream().map(Class::getName).sorted().forEach(name -> key.append(name).append(','));
+        }
+
+        key.append('|');
+        Set<Object> instances = options.getInstances();
+        if (instances != null) {
+            instances.stream().map(instance -> instance.getClass().getName()).sorted()
+                    .forEach(name -> key.append(name).append(','));
+        }
+
+        Map<String, Object> properties = options.getProperties();
+        if (properties != null) {
+            key.append('|').append(new TreeMap<>(properties));
+        }
+
+        return key.toString();
     }
 
     protected ResourceConfig createConfiguration() {
@@ -114,7 +279,28 @@ public class DefaultVertxContainer implements VertxContainer {
         if (packages == null || packages.size() == 0) {
             throw new IllegalStateException("At least one resource package name must be specified");
         }
-        rc.packages(packages.toArray(new String[packages.size()]));
+
+        ResourceIndex index = null;
+        ClassLoader classLoader = getClassLoader();
+        if (options.getUseResourceIndex()) {
+            index = ResourceIndex.load(classLoader);
+            if (index == null) {
+                logger.warn("No jersey resource index found at " + ResourceIndex.LOCATION + ", scanning packages");
+            }
+        }
+        if (index != null) {
+            // Register the classes indexed at build time rather than scanning the classpath
+            rc.registerClasses(index.getClasses(packages, classLoader));
+            // An index in one jar says nothing about the others, scan the packages found in a jar without an index
+            List<String> unindexed = index.getUnindexedPackages(packages, classLoader);
+            if (!unindexed.isEmpty()) {
+                logger.warn("Packages " + unindexed + " are found in a jar without a jersey resource index at "
+                        + ResourceIndex.LOCATION + ", scanning them");
+                rc.packages(unindexed.toArray(new String[unindexed.size()]));
+            }
+        } else {
+            rc.packages(packages.toArray(new String[packages.size()]));
+        }
 
         Set<Class<?>> components = options.getComponents();
         if (components != null) {
@@ -124,6 +310,23 @@ public class DefaultVertxContainer implements VertxContainer {
         // Always register the InternalVertxJerseyBinder
         rc.register(new InternalVertxJerseyBinder(vertx));
 
+        // Always register the vert.x message body providers so they take precedence over the jersey defaults
+        rc.register(BufferBodyReader.class);
+        rc.register(ReadStreamBodyWriter.class);
+        rc.register(FileBodyWriter.class);
+
+        // Cache the message body reader and writer selection of every resource method
+        if (options.getPrecomputeMessageBodies()) {
+            rc.register(new CachingMessageBodyFactory.Binder());
+        }
+
+        // Report resource methods blocking the event loop, other listeners such as metrics read the same properties
+        rc.property(BlockedTimeEventListener.PROPERTY_THRESHOLD, options.getBlockedTimeThreshold());
+        rc.property(BlockedTimeEventListener.PROPERTY_SAMPLE_STACKS, options.getBlockedTimeSampleStacks());
+        if (options.getBlockedTimeThreshold() > 0) {
+            rc.register(new BlockedTimeEventListener());
+        }
+
         // Register configured binders
         Set<Object> instances = options.getInstances();
         if (instances != null) {
@@ -138,4 +341,9 @@ public class DefaultVertxContainer implements VertxContainer {
         return rc;
     }
 
+    private ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : getClass().getClassLoader();
+    }
+
 }
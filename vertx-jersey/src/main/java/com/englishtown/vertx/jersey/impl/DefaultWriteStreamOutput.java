@@ -1,25 +1,50 @@
 package com.englishtown.vertx.jersey.impl;
 
 import com.englishtown.vertx.jersey.WriteStreamOutput;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerResponse;
 
 /**
- * Default implementation of {@link com.englishtown.vertx.jersey.WriteStreamOutput}
+ * Default implementation of {@link com.englishtown.vertx.jersey.WriteStreamOutput}.  Writes from outside the request
+ * context are posted to it, so the response sees them in order, and the writer is suspended while the posted and
+ * queued data is over the write queue max size.
  */
 public class DefaultWriteStreamOutput implements WriteStreamOutput {
 
     private HttpServerResponse response;
+    private Context context;
     private Handler<Void> endHandler;
+    private ResponseBackpressure backpressure;
+    private long rangeStart = -1;
+    private long rangeEnd;
+    private long position;
 
     /**
      * {@inheritDoc}
      */
     @Override
     public WriteStreamOutput init(HttpServerResponse response, Handler<Void> endHandler) {
+        return init(response, null, ResponseCloseHandler.install(response), 0, endHandler);
+    }
+
+    /**
+     * Sets the underlying vert.x response and the request context writes are run on
+     *
+     * @param response          the response object
+     * @param context           the request context or null to write directly
+     * @param closeHandler      the response close handler
+     * @param writeQueueMaxSize the write queue max size or 0 for the default
+     * @param endHandler        the end handler called when writes are completed
+     * @return the current write stream output
+     */
+    public WriteStreamOutput init(HttpServerResponse response, Context context, ResponseCloseHandler closeHandler,
+                                  int writeQueueMaxSize, Handler<Void> endHandler) {
         this.response = response;
+        this.context = context;
         this.endHandler = endHandler;
+        this.backpressure = new ResponseBackpressure(response, closeHandler, writeQueueMaxSize);
         return this;
     }
 
@@ -33,6 +58,16 @@ public class DefaultWriteStreamOutput implements WriteStreamOutput {
         return (response != null);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setRange(long start, long end) {
+        this.rangeStart = start;
+        this.rangeEnd = end;
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -42,7 +77,7 @@ public class DefaultWriteStreamOutput implements WriteStreamOutput {
         if (endHandler != null) {
             endHandler.handle(null);
         } else {
-            response.end();
+            VertxResponseWriter.runOnContext(context, aVoid -> response.end());
         }
     }
 
@@ -52,7 +87,24 @@ public class DefaultWriteStreamOutput implements WriteStreamOutput {
     @Override
     public WriteStreamOutput write(Buffer data) {
         checkResponseSet();
-        response.write(data);
+        if (rangeStart >= 0) {
+            data = slice(data);
+            if (data == null) {
+                return this;
+            }
+        }
+        Buffer chunk = data;
+        int size = chunk.length();
+        backpressure.posted(size);
+        VertxResponseWriter.runOnContext(context, aVoid -> {
+            try {
+                response.write(chunk);
+            } finally {
+                backpressure.written(size);
+            }
+        });
+        // Writers off the event loop wait for the client to catch up, event loop writers use writeQueueFull()
+        backpressure.awaitWritable();
         return this;
     }
 
@@ -95,6 +147,23 @@ public class DefaultWriteStreamOutput implements WriteStreamOutput {
         return this;
     }
 
+    private Buffer slice(Buffer data) {
+        // Keep only the part of the data within the range
+        long from = position;
+        long to = position + data.length();
+        position = to;
+
+        long start = Math.max(from, rangeStart);
+        long end = Math.min(to, rangeEnd + 1);
+        if (start >= end) {
+            return null;
+        }
+        if (start == from && end == to) {
+            return data;
+        }
+        return data.slice((int) (start - from), (int) (end - from));
+    }
+
     private void checkResponseSet() {
         if (response == null) {
             throw new IllegalStateException("The HttpServerResponse has not been set yet.");
@@ -0,0 +1,69 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link DefaultApplicationHandlerDelegate} counting the requests jersey is still handling so a replaced application
+ * handler can be shut down once its in-flight requests finish
+ */
+public class DrainingApplicationHandlerDelegate extends DefaultApplicationHandlerDelegate {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Runnable> onDrained = new AtomicReference<>();
+
+    public DrainingApplicationHandlerDelegate(ApplicationHandler handler) {
+        super(handler);
+    }
+
+    /**
+     * Passes the request to jersey, counting it in flight until its response is committed or fails
+     *
+     * @param request the Jersey {@link ContainerRequest} to process
+     */
+    @Override
+    public void handle(ContainerRequest request) {
+        inFlight.incrementAndGet();
+        TrackingResponseWriter writer = new TrackingResponseWriter(request.getResponseWriter(), this::release);
+        request.setWriter(writer);
+        try {
+            super.handle(request);
+        } catch (RuntimeException | Error e) {
+            writer.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the handler once there are no requests in flight, immediately if there are none now
+     *
+     * @param handler the handler to run once drained
+     */
+    public void drain(Runnable handler) {
+        onDrained.set(handler);
+        if (inFlight.get() == 0) {
+            drained();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void release() {
+        if (inFlight.decrementAndGet() == 0) {
+            drained();
+        }
+    }
+
+    private void drained() {
+        Runnable handler = onDrained.getAndSet(null);
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+}
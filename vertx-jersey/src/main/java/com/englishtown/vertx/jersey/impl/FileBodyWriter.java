@@ -0,0 +1,92 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.server.ContainerRequest;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Jersey {@link javax.ws.rs.ext.MessageBodyWriter} for {@link File} and {@link Path} entities.
+ * The file is sent with {@link io.vertx.core.http.HttpServerResponse#sendFile(String)} by the
+ * {@link VertxResponseWriter} so it is never copied onto the heap.  When the response is encoded by a writer
+ * interceptor (Content-Encoding) or written by another container response writer, the file is streamed to the entity
+ * stream instead.
+ */
+public class FileBodyWriter implements MessageBodyWriter<Object> {
+
+    /**
+     * The jersey request property set by the {@link VertxResponseWriter} when it sends the file itself
+     */
+    public static final String PROPERTY_SEND_FILE = FileBodyWriter.class.getName() + ".sendFile";
+
+    private final Provider<ContainerRequest> requestProvider;
+
+    @Inject
+    public FileBodyWriter(Provider<ContainerRequest> requestProvider) {
+        this.requestProvider = requestProvider;
+    }
+
+    /**
+     * Whether the entity type is file backed
+     *
+     * @param type the entity type
+     * @return true for {@link File} and {@link Path}
+     */
+    public static boolean isFile(Class<?> type) {
+        return File.class.isAssignableFrom(type) || Path.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Returns the file of a file backed entity
+     *
+     * @param entity the response entity
+     * @return the file or null if the entity is not file backed
+     */
+    public static File getFile(Object entity) {
+        if (entity instanceof File) {
+            return (File) entity;
+        }
+        if (entity instanceof Path) {
+            return ((Path) entity).toFile();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isFile(type);
+    }
+
+    @Override
+    public long getSize(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        // Writer interceptors may change the length, vert.x sets it for files it sends
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        // Commit the response so the container response writer decides whether it sends the file itself
+        entityStream.flush();
+
+        ContainerRequest request = requestProvider.get();
+        if (request != null && Boolean.TRUE.equals(request.getProperty(PROPERTY_SEND_FILE))) {
+            return;
+        }
+
+        File file = getFile(entity);
+        if (file != null) {
+            Files.copy(file.toPath(), entityStream);
+        }
+    }
+}
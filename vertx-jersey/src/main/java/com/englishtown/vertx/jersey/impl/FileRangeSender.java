@@ -0,0 +1,215 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sends byte ranges of a file for a partial content (206) response.  A single range is written as is, multiple
+ * ranges as a multipart/byteranges body.  The file is read in chunks, waiting for the response write queue to drain.
+ * <p>
+ * The status and headers, including the multipart content type from {@link #getContentType()}, must be set before
+ * {@link #send(Handler)} is called.  The response is not ended.  Call {@link #stop(Throwable)} if the client goes away,
+ * the write queue never drains on a closed connection.
+ */
+public class FileRangeSender {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final Vertx vertx;
+    private final HttpServerResponse response;
+    private final String path;
+    private final long fileLength;
+    private final List<HttpRange> ranges;
+    private final String partContentType;
+    private final String boundary;
+    private final int chunkSize;
+
+    private AsyncFile asyncFile;
+    private Handler<AsyncResult<Void>> doneHandler;
+    private int rangeIndex;
+    private long position;
+    private Throwable stopped;
+    private boolean completed;
+
+    public FileRangeSender(Vertx vertx, HttpServerResponse response, String path, long fileLength, List<HttpRange> ranges, String partContentType) {
+        this(vertx, response, path, fileLength, ranges, partContentType, DEFAULT_CHUNK_SIZE);
+    }
+
+    public FileRangeSender(Vertx vertx, HttpServerResponse response, String path, long fileLength, List<HttpRange> ranges, String partContentType, int chunkSize) {
+        this.vertx = vertx;
+        this.response = response;
+        this.path = path;
+        this.fileLength = fileLength;
+        this.ranges = ranges;
+        this.partContentType = partContentType;
+        this.chunkSize = chunkSize;
+        this.boundary = (ranges.size() > 1 ? Long.toHexString(ThreadLocalRandom.current().nextLong()) : null);
+    }
+
+    /**
+     * Whether the ranges are sent as a multipart/byteranges body
+     *
+     * @return true if there is more than one range
+     */
+    public boolean isMultipart() {
+        return boundary != null;
+    }
+
+    /**
+     * The response content type
+     *
+     * @return the multipart/byteranges content type, or the part content type for a single range
+     */
+    public String getContentType() {
+        return isMultipart() ? "multipart/byteranges; boundary=" + boundary : partContentType;
+    }
+
+    /**
+     * The response content length
+     *
+     * @return the number of body bytes written
+     */
+    public long getContentLength() {
+        if (!isMultipart()) {
+            return ranges.get(0).length();
+        }
+        long length = 0;
+        for (HttpRange range : ranges) {
+            length += partHeader(range).length + range.length();
+        }
+        return length + closeDelimiter().length;
+    }
+
+    /**
+     * Opens the file and writes the ranges to the response
+     *
+     * @param doneHandler called once every range has been written or on failure
+     */
+    public void send(Handler<AsyncResult<Void>> doneHandler) {
+        this.doneHandler = doneHandler;
+
+        vertx.fileSystem().open(path, new OpenOptions().setRead(true).setWrite(false).setCreate(false), result -> {
+            if (result.failed()) {
+                done(result.cause());
+                return;
+            }
+            asyncFile = result.result();
+            if (stopped != null) {
+                done(stopped);
+                return;
+            }
+            nextRange();
+        });
+    }
+
+    /**
+     * Stops sending, such as when the client goes away.  The file is closed and the done handler called with the
+     * error if the ranges have not all been written yet.
+     *
+     * @param error the reason sending was stopped
+     */
+    public void stop(Throwable error) {
+        if (doneHandler == null || completed) {
+            return;
+        }
+        stopped = error;
+        // Still opening the file, it is closed once open
+        if (asyncFile != null) {
+            done(error);
+        }
+    }
+
+    private void nextRange() {
+        if (rangeIndex == ranges.size()) {
+            if (isMultipart()) {
+                response.write(Buffer.buffer(closeDelimiter()));
+            }
+            done(null);
+            return;
+        }
+
+        HttpRange range = ranges.get(rangeIndex++);
+        if (isMultipart()) {
+            response.write(Buffer.buffer(partHeader(range)));
+        }
+        position = range.getStart();
+        read(range);
+    }
+
+    private void read(HttpRange range) {
+        int length = (int) Math.min(chunkSize, range.getEnd() + 1 - position);
+        asyncFile.read(Buffer.buffer(length), 0, position, length, result -> {
+            if (completed) {
+                return;
+            }
+            if (result.failed()) {
+                done(result.cause());
+                return;
+            }
+
+            Buffer chunk = result.result();
+            if (chunk.length() == 0) {
+                // The file was truncated after the ranges were resolved
+                done(new IllegalStateException("Unexpected end of file " + path));
+                return;
+            }
+
+            position += chunk.length();
+            response.write(chunk);
+
+            Handler<Void> next = v -> {
+                if (position > range.getEnd()) {
+                    nextRange();
+                } else {
+                    read(range);
+                }
+            };
+
+            if (response.writeQueueFull()) {
+                response.drainHandler(next);
+            } else {
+                next.handle(null);
+            }
+        });
+    }
+
+    private void done(Throwable cause) {
+        if (completed) {
+            return;
+        }
+        completed = true;
+        if (asyncFile != null) {
+            asyncFile.close();
+        }
+        doneHandler.handle(cause == null ? Future.succeededFuture() : Future.failedFuture(cause));
+    }
+
+    private byte[] partHeader(HttpRange range) {
+        StringBuilder sb = new StringBuilder();
+        // The first delimiter has no leading CRLF
+        if (range != ranges.get(0)) {
+            sb.append("\r\n");
+        }
+        sb.append("--").append(boundary).append("\r\n");
+        if (partContentType != null) {
+            sb.append("Content-Type: ").append(partContentType).append("\r\n");
+        }
+        sb.append("Content-Range: ").append(range.toContentRange(fileLength)).append("\r\n\r\n");
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private byte[] closeDelimiter() {
+        return ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.message.internal.HttpHeaderReader;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A byte range of a {@code Range} request header (RFC 7233)
+ */
+public class HttpRange {
+
+    /**
+     * The max number of ranges honored in one request, requests with more are served in full
+     */
+    public static final int MAX_RANGES = 16;
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    public HttpRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses a Range header for a representation of the given length
+     *
+     * @param header the Range header value
+     * @param length the full length of the representation
+     * @return the satisfiable ranges, an empty list if none are satisfiable, or null if the header should be ignored
+     */
+    public static List<HttpRange> parse(String header, long length) {
+
+        if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+
+        List<HttpRange> ranges = new ArrayList<>();
+
+        for (String spec : header.substring(BYTES_UNIT.length()).split(",")) {
+            spec = spec.trim();
+            if (spec.isEmpty()) {
+                continue;
+            }
+
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+
+            long start;
+            long end;
+
+            try {
+                if (first.isEmpty()) {
+                    // Suffix range, the last n bytes
+                    long suffix = Long.parseLong(last);
+                    if (suffix < 0) {
+                        return null;
+                    }
+                    if (suffix == 0 || length == 0) {
+                        continue;
+                    }
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(first);
+                    end = (last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last));
+                    if (start < 0 || end < start) {
+                        return null;
+                    }
+                    if (start >= length) {
+                        continue;
+                    }
+                    end = Math.min(end, length - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+
+            ranges.add(new HttpRange(start, end));
+            if (ranges.size() > MAX_RANGES) {
+                return null;
+            }
+        }
+
+        return ranges.isEmpty() ? Collections.emptyList() : ranges;
+    }
+
+    /**
+     * Whether a range request is still valid for the current representation according to its If-Range header
+     *
+     * @param ifRange      the If-Range header value or null
+     * @param etag         the ETag of the current representation or null
+     * @param lastModified the last modified time of the current representation in milliseconds or -1 if unknown
+     * @return true if the ranges should be served
+     */
+    public static boolean matchesIfRange(String ifRange, String etag, long lastModified) {
+
+        if (ifRange == null) {
+            return true;
+        }
+
+        ifRange = ifRange.trim();
+
+        // Entity tags must be strong and match exactly
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return etag != null && !ifRange.startsWith("W/") && !etag.startsWith("W/") && ifRange.equals(etag.trim());
+        }
+
+        if (lastModified < 0) {
+            return false;
+        }
+
+        try {
+            // Http dates have second precision
+            return HttpHeaderReader.readDate(ifRange).getTime() / 1000 == lastModified / 1000;
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Parses an http date header
+     *
+     * @param date the header value
+     * @return the time in milliseconds or -1 if missing or invalid
+     */
+    public static long parseDate(String date) {
+        if (date == null) {
+            return -1;
+        }
+        try {
+            return HttpHeaderReader.readDate(date).getTime();
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a Content-Length header
+     *
+     * @param contentLength the header value
+     * @return the length or -1 if missing or invalid
+     */
+    public static long parseLength(String contentLength) {
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The first byte position
+     *
+     * @return the start position
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * The last byte position, inclusive
+     *
+     * @return the end position
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * The number of bytes in the range
+     *
+     * @return the range length
+     */
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * The Content-Range header value for the range
+     *
+     * @param totalLength the full length of the representation
+     * @return the content range
+     */
+    public String toContentRange(long totalLength) {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+
+}
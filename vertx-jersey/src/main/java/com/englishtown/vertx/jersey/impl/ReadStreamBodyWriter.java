@@ -0,0 +1,34 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.englishtown.vertx.jersey.ReadStreamOutput;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Jersey {@link javax.ws.rs.ext.MessageBodyWriter} for {@link com.englishtown.vertx.jersey.ReadStreamOutput}.
+ * The read stream is pumped by the {@link VertxResponseWriter} when the response is committed.
+ */
+public class ReadStreamBodyWriter implements MessageBodyWriter<ReadStreamOutput> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return ReadStreamOutput.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public long getSize(ReadStreamOutput readStreamOutput, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return readStreamOutput.getLength();
+    }
+
+    @Override
+    public void writeTo(ReadStreamOutput readStreamOutput, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        // Do nothing
+    }
+}
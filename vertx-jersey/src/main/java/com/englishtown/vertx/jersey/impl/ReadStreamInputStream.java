@@ -0,0 +1,290 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded {@link InputStream} fed by a vert.x {@link ReadStream}.
+ * <p>
+ * The read stream is paused once the buffered bytes reach the high watermark and resumed when the reader has
+ * drained them below half of it, so memory held per request stays constant regardless of the body size.
+ * <p>
+ * Reads block until data arrives, so the stream must be consumed off the event loop.  Waiting uses a
+ * {@link ReentrantLock} rather than a monitor so a virtual thread reading the body does not pin its carrier thread.
+ */
+public class ReadStreamInputStream extends InputStream {
+
+    private final ReadStream<Buffer> readStream;
+    private final Context context;
+    private final long maxBodySize;
+    private final int highWatermark;
+    private final int lowWatermark;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<ByteBuf> chunks = new ArrayDeque<>();
+    private ByteBuf current;
+    private int buffered;
+    private long received;
+    private boolean paused;
+    private boolean ended;
+    private boolean closed;
+    private IOException error;
+    private Handler<Void> bodyTooLargeHandler;
+
+    /**
+     * @param readStream    the vert.x read stream providing the data
+     * @param context       the vert.x context the read stream belongs to
+     * @param maxBodySize   the max number of bytes allowed before the stream fails
+     * @param highWatermark the number of buffered bytes at which the read stream is paused
+     */
+    public ReadStreamInputStream(ReadStream<Buffer> readStream, Context context, long maxBodySize, int highWatermark) {
+        if (highWatermark <= 0) {
+            throw new IllegalArgumentException("The high watermark must be greater than 0");
+        }
+        this.readStream = readStream;
+        this.context = context;
+        this.maxBodySize = maxBodySize;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = highWatermark / 2;
+
+        readStream.handler(this::handleData);
+        readStream.endHandler(aVoid -> handleEnd());
+        readStream.exceptionHandler(this::handleException);
+    }
+
+    /**
+     * Returns the number of bytes received from the read stream so far
+     *
+     * @return received bytes
+     */
+    public long getReceived() {
+        lock.lock();
+        try {
+            return received;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the handler called on the read stream's context when the body exceeds the max body size.  The read stream
+     * is paused by then, the handler is expected to answer the request (typically a 413) and close the connection.
+     *
+     * @param handler the handler
+     * @return this
+     */
+    public ReadStreamInputStream bodyTooLargeHandler(Handler<Void> handler) {
+        lock.lock();
+        try {
+            this.bodyTooLargeHandler = handler;
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Fails any pending or future reads with the provided cause
+     *
+     * @param t the failure cause
+     */
+    public void fail(Throwable t) {
+        lock.lock();
+        try {
+            if (error == null && !ended) {
+                error = (t instanceof IOException ? (IOException) t : new IOException(t));
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException {
+        lock.lock();
+        try {
+            if (!awaitData()) {
+                return -1;
+            }
+            int b = current.readByte() & 0xff;
+            consumed(1);
+            return b;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            if (!awaitData()) {
+                return -1;
+            }
+            int n = Math.min(len, current.readableBytes());
+            current.readBytes(b, off, n);
+            consumed(n);
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() throws IOException {
+        lock.lock();
+        try {
+            return buffered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            chunks.clear();
+            current = null;
+            buffered = 0;
+            changed.signalAll();
+            // Let the remainder of the body drain so the connection can be reused
+            if (paused) {
+                paused = false;
+                resumeReadStream();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void handleData(Buffer data) {
+        Handler<Void> tooLarge;
+        lock.lock();
+        try {
+            if (closed || error != null) {
+                return;
+            }
+            received += data.length();
+            if (received <= maxBodySize) {
+                append(data);
+                return;
+            }
+            // Stop receiving the rest of the body, the handler rejects the request
+            error = new IOException("The input stream has exceeded the max allowed body size " + maxBodySize + ".");
+            chunks.clear();
+            current = null;
+            buffered = 0;
+            if (!paused) {
+                paused = true;
+                readStream.pause();
+            }
+            tooLarge = bodyTooLargeHandler;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (tooLarge != null) {
+            tooLarge.handle(null);
+        }
+    }
+
+    private void append(Buffer data) {
+        chunks.add(data.getByteBuf());
+        buffered += data.length();
+        if (!paused && buffered >= highWatermark) {
+            paused = true;
+            readStream.pause();
+        }
+        changed.signalAll();
+    }
+
+    private void handleEnd() {
+        lock.lock();
+        try {
+            ended = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void handleException(Throwable t) {
+        fail(t);
+    }
+
+    private boolean awaitData() throws IOException {
+        while (true) {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+            if (error != null) {
+                throw error;
+            }
+            if (current != null && current.isReadable()) {
+                return true;
+            }
+            current = chunks.poll();
+            if (current != null) {
+                continue;
+            }
+            if (ended) {
+                return false;
+            }
+            try {
+                changed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for request data", e);
+            }
+        }
+    }
+
+    private void consumed(int n) {
+        buffered -= n;
+        if (paused && buffered <= lowWatermark) {
+            paused = false;
+            resumeReadStream();
+        }
+    }
+
+    private void resumeReadStream() {
+        // Resume on the owning context, the reader is typically a worker thread
+        context.runOnContext(aVoid -> readStream.resume());
+    }
+
+}
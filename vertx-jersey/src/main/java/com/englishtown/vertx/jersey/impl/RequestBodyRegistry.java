@@ -0,0 +1,145 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.http.HttpMethod;
+
+import javax.ws.rs.core.MediaType;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides which requests have their body read and passed to jersey.
+ * <p>
+ * The http methods and media types are resolved once when created, and parsed content type headers are cached so
+ * the same header values are not parsed on every request.
+ */
+public class RequestBodyRegistry {
+
+    public static final int DEFAULT_MAX_CACHED_CONTENT_TYPES = 256;
+
+    /**
+     * A parsed content type header and whether its body is read
+     */
+    public static class ContentType {
+
+        private final MediaType mediaType;
+        private final boolean readBody;
+
+        ContentType(MediaType mediaType, boolean readBody) {
+            this.mediaType = mediaType;
+            this.readBody = readBody;
+        }
+
+        /**
+         * The parsed media type or null if the header was invalid
+         *
+         * @return the media type
+         */
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Whether the request body is read for this content type
+         *
+         * @return true to read the body
+         */
+        public boolean isReadBody() {
+            return readBody;
+        }
+
+    }
+
+    private final Set<HttpMethod> methods = EnumSet.noneOf(HttpMethod.class);
+    private final List<MediaType> mediaTypes = new ArrayList<>();
+    private final ConcurrentMap<String, ContentType> contentTypes = new ConcurrentHashMap<>();
+    private final int maxCachedContentTypes;
+
+    public RequestBodyRegistry(Collection<String> methods, Collection<String> mediaTypes) {
+        this(methods, mediaTypes, DEFAULT_MAX_CACHED_CONTENT_TYPES);
+    }
+
+    public RequestBodyRegistry(Collection<String> methods, Collection<String> mediaTypes, int maxCachedContentTypes) {
+        for (String method : methods) {
+            this.methods.add(HttpMethod.valueOf(method.trim().toUpperCase(Locale.ENGLISH)));
+        }
+        for (String mediaType : mediaTypes) {
+            this.mediaTypes.add(MediaType.valueOf(mediaType));
+        }
+        this.maxCachedContentTypes = maxCachedContentTypes;
+    }
+
+    /**
+     * Whether requests with the http method can have their body read
+     *
+     * @param method the http method
+     * @return true if the body can be read
+     */
+    public boolean isBodyMethod(HttpMethod method) {
+        return methods.contains(method);
+    }
+
+    /**
+     * Whether the request body should be read and passed to jersey
+     *
+     * @param method      the http method
+     * @param contentType the content type header value
+     * @return true if the body should be read
+     */
+    public boolean shouldRead(HttpMethod method, String contentType) {
+
+        if (!isBodyMethod(method)) {
+            return false;
+        }
+
+        if (contentType == null || contentType.isEmpty()) {
+            // Special handling for IE8 XDomainRequest where content-type is missing
+            // http://blogs.msdn.com/b/ieinternals/archive/2010/05/13/xdomainrequest-restrictions-limitations-and-workarounds.aspx
+            return true;
+        }
+
+        return getContentType(contentType).isReadBody();
+    }
+
+    /**
+     * Returns the parsed content type header
+     *
+     * @param contentType the content type header value
+     * @return the parsed content type
+     */
+    public ContentType getContentType(String contentType) {
+
+        ContentType result = contentTypes.get(contentType);
+        if (result != null) {
+            return result;
+        }
+
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.valueOf(contentType);
+        } catch (IllegalArgumentException e) {
+            // Leave invalid headers to jersey
+            mediaType = null;
+        }
+
+        result = new ContentType(mediaType, mediaType != null && isReadable(mediaType));
+
+        // Header values are client supplied, keep the cache bounded
+        if (contentTypes.size() >= maxCachedContentTypes) {
+            contentTypes.clear();
+        }
+        contentTypes.put(contentType, result);
+
+        return result;
+    }
+
+    private boolean isReadable(MediaType mediaType) {
+        for (MediaType readable : mediaTypes) {
+            if (readable.isCompatible(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.englishtown.vertx.jersey.impl;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates the jersey request and base URIs from the Host header and request line without going through
+ * {@link javax.ws.rs.core.UriBuilder}.
+ * <p>
+ * Base URIs are cached per Host header value.  Requests that cannot take the fast path (no or unusual Host header,
+ * absolute request targets, invalid URIs) return null so the caller can fall back to the full parse.
+ */
+public class RequestUriFactory {
+
+    public static final int DEFAULT_MAX_CACHED_BASE_URIS = 256;
+
+    private final String scheme;
+    private final String basePath;
+    private final int maxCachedBaseUris;
+    private final ConcurrentMap<String, URI> baseUris = new ConcurrentHashMap<>();
+
+    public RequestUriFactory(boolean ssl, String basePath) {
+        this(ssl, basePath, DEFAULT_MAX_CACHED_BASE_URIS);
+    }
+
+    public RequestUriFactory(boolean ssl, String basePath, int maxCachedBaseUris) {
+        this.scheme = (ssl ? "https" : "http");
+        this.basePath = (basePath == null || basePath.isEmpty() ? "/" : basePath);
+        this.maxCachedBaseUris = maxCachedBaseUris;
+    }
+
+    /**
+     * The request scheme
+     *
+     * @return http or https
+     */
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * Creates the absolute request URI
+     *
+     * @param hostAndPort the Host header value
+     * @param uri         the request line uri
+     * @return the request URI or null if the fast path does not apply
+     */
+    public URI createRequestUri(String hostAndPort, String uri) {
+
+        if (!isValidHost(hostAndPort) || uri == null || uri.isEmpty() || uri.charAt(0) != '/') {
+            return null;
+        }
+
+        StringBuilder sb = new StringBuilder(scheme.length() + 3 + hostAndPort.length() + uri.length())
+                .append(scheme)
+                .append("://")
+                .append(hostAndPort)
+                .append(uri);
+
+        try {
+            return new URI(sb.toString());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the base URI for a Host header value
+     *
+     * @param hostAndPort the Host header value
+     * @return the base URI or null if the fast path does not apply
+     */
+    public URI getBaseUri(String hostAndPort) {
+
+        URI baseUri = baseUris.get(hostAndPort);
+        if (baseUri != null) {
+            return baseUri;
+        }
+
+        if (!isValidHost(hostAndPort)) {
+            return null;
+        }
+
+        try {
+            baseUri = new URI(scheme + "://" + hostAndPort + basePath);
+        } catch (URISyntaxException e) {
+            return null;
+        }
+
+        // Host headers are client supplied, keep the cache bounded
+        if (baseUris.size() >= maxCachedBaseUris) {
+            baseUris.clear();
+        }
+        baseUris.put(hostAndPort, baseUri);
+
+        return baseUri;
+    }
+
+    private boolean isValidHost(String hostAndPort) {
+
+        if (hostAndPort == null || hostAndPort.isEmpty()) {
+            return false;
+        }
+
+        // Only accept host names, IPv4/IPv6 addresses and numeric ports, anything else takes the slow path
+        int i = 0;
+        int length = hostAndPort.length();
+
+        if (hostAndPort.charAt(0) == '[') {
+            int end = hostAndPort.indexOf(']');
+            if (end < 0) {
+                return false;
+            }
+            for (i = 1; i < end; i++) {
+                char c = hostAndPort.charAt(i);
+                if (!(isHexDigit(c) || c == ':' || c == '.')) {
+                    return false;
+                }
+            }
+            i = end + 1;
+        } else {
+            for (; i < length && hostAndPort.charAt(i) != ':'; i++) {
+                char c = hostAndPort.charAt(i);
+                if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '.' || c == '-')) {
+                    return false;
+                }
+            }
+            if (i == 0) {
+                return false;
+            }
+        }
+
+        if (i == length) {
+            return true;
+        }
+        if (hostAndPort.charAt(i) != ':' || i == length - 1) {
+            return false;
+        }
+        for (i++; i < length; i++) {
+            char c = hostAndPort.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+}
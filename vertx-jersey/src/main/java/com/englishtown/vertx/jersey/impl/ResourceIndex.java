@@ -0,0 +1,164 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the resource and provider index written at build time by
+ * {@link com.englishtown.vertx.jersey.processor.ResourceIndexProcessor} so classes can be registered without scanning
+ * packages.
+ */
+public class ResourceIndex {
+
+    /**
+     * Classpath location of the index, each jar has its own with one binary class name per line
+     */
+    public static final String LOCATION = "META-INF/vertx-jersey/resource-index";
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceIndex.class);
+
+    private final Set<String> classNames;
+    private final Set<String> roots;
+
+    /**
+     * @param classNames the indexed class names
+     * @param roots      the classpath roots (directories or jars) that have an index
+     */
+    public ResourceIndex(Set<String> classNames, Set<String> roots) {
+        this.classNames = classNames;
+        this.roots = roots;
+    }
+
+    /**
+     * Loads and merges every index on the classpath
+     *
+     * @param classLoader the class loader to load the indexes from
+     * @return the resource index, or null if no index was found
+     */
+    public static ResourceIndex load(ClassLoader classLoader) {
+        Set<String> classNames = new LinkedHashSet<>();
+        Set<String> roots = new HashSet<>();
+
+        try {
+            Enumeration<URL> urls = classLoader.getResources(LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                roots.add(getRoot(url, LOCATION));
+                read(url, classNames);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read the jersey resource index", e);
+        }
+
+        return roots.isEmpty() ? null : new ResourceIndex(classNames, roots);
+    }
+
+    private static void read(URL url, Set<String> classNames) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    classNames.add(line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed classes in the packages or their sub-packages, the same classes jersey would find scanning
+     * the packages recursively
+     *
+     * @param packages    the package names
+     * @param classLoader the class loader to load the classes with
+     * @return the indexed classes
+     */
+    public Set<Class<?>> getClasses(List<String> packages, ClassLoader classLoader) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+
+        for (String className : classNames) {
+            if (!inPackages(className, packages)) {
+                continue;
+            }
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Stale index entry, the class was removed after the index was written
+                logger.warn("Skipping indexed class " + className + " that could not be loaded", e);
+            }
+        }
+
+        return classes;
+    }
+
+    /**
+     * Returns the packages found in a classpath root without an index, such as a jar built without the annotation
+     * processor.  An index only covers the classes of its own root, so a package split across jars is unindexed if
+     * any of them has no index.
+     *
+     * @param packages    the package names
+     * @param classLoader the class loader to find the package roots with
+     * @return the packages jersey still has to scan
+     */
+    public List<String> getUnindexedPackages(List<String> packages, ClassLoader classLoader) {
+        List<String> unindexed = new ArrayList<>();
+
+        for (String p : packages) {
+            String path = p.replace('.', '/');
+            try {
+                Enumeration<URL> urls = classLoader.getResources(path);
+                while (urls.hasMoreElements()) {
+                    if (!roots.contains(getRoot(urls.nextElement(), path))) {
+                        unindexed.add(p);
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to find the classpath roots of package " + p, e);
+            }
+        }
+
+        return unindexed;
+    }
+
+    /**
+     * Returns the classpath root a resource was found in, the resource url without the resource path
+     *
+     * @param url  the resource url
+     * @param path the resource path
+     * @return the classpath root
+     */
+    static String getRoot(URL url, String path) {
+        String s = url.toString();
+        if (s.endsWith("/")) {
+            s = s.substring(0, s.length() - 1);
+        }
+        return s.endsWith(path) ? s.substring(0, s.length() - path.length()) : s;
+    }
+
+    private static boolean inPackages(String className, List<String> packages) {
+        for (String p : packages) {
+            if (className.startsWith(p + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Set<String> getClassNames() {
+        return classNames;
+    }
+
+}
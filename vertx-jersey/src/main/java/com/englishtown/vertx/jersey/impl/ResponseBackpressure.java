@@ -0,0 +1,127 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.http.HttpServerResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suspends producers writing to a vert.x response from outside the event loop while the response write queue is
+ * full, so a slow client cannot make the server queue unbounded data.
+ * <p>
+ * Producers off the event loop post their writes to it, so besides the write queue the bytes posted but not yet
+ * written ({@link #posted(int)} and {@link #written(int)}) are bounded too.  Writers on the event loop cannot block;
+ * they are expected to use {@link HttpServerResponse#writeQueueFull()} and a drain handler themselves.  Blocked
+ * producers are released through the {@link ResponseCloseHandler} if the client goes away.
+ */
+public class ResponseBackpressure {
+
+    /**
+     * The max bytes posted but not yet written when no write queue max size is configured, the netty default
+     */
+    public static final int DEFAULT_MAX_POSTED = 64 * 1024;
+
+    private final HttpServerResponse response;
+    private final int maxPosted;
+    private final AtomicLong posted = new AtomicLong();
+    private volatile boolean closed;
+    private volatile CountDownLatch drained;
+
+    public ResponseBackpressure(HttpServerResponse response) {
+        this(response, ResponseCloseHandler.install(response), DEFAULT_MAX_POSTED);
+    }
+
+    public ResponseBackpressure(HttpServerResponse response, ResponseCloseHandler closeHandler, int maxPosted) {
+        this.response = response;
+        this.maxPosted = (maxPosted > 0 ? maxPosted : DEFAULT_MAX_POSTED);
+        // Release blocked producers if the client goes away, the write queue never drains on a closed connection
+        closeHandler.add(aVoid -> {
+            closed = true;
+            release();
+        });
+    }
+
+    /**
+     * Whether the connection was closed
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Counts bytes posted to the event loop to be written
+     *
+     * @param bytes the byte count
+     */
+    public void posted(int bytes) {
+        posted.addAndGet(bytes);
+    }
+
+    /**
+     * Counts posted bytes the event loop has written to the response
+     *
+     * @param bytes the byte count
+     */
+    public void written(int bytes) {
+        if (posted.addAndGet(-bytes) < maxPosted) {
+            release();
+        }
+    }
+
+    /**
+     * Blocks the calling thread until the posted writes have caught up and the response write queue has drained.
+     * Returns immediately on the event loop or if neither is full.
+     *
+     * @return false if the connection was closed or the thread interrupted while waiting
+     */
+    public boolean awaitWritable() {
+
+        if (closed) {
+            return false;
+        }
+        if (Context.isOnEventLoopThread()) {
+            return true;
+        }
+
+        while (true) {
+            boolean postedFull = posted.get() >= maxPosted;
+            if (!postedFull && !response.writeQueueFull()) {
+                return true;
+            }
+
+            CountDownLatch latch = new CountDownLatch(1);
+            drained = latch;
+            if (!postedFull) {
+                // vert.x calls the drain handler right away if the queue has already drained
+                response.drainHandler(aVoid -> latch.countDown());
+            }
+
+            try {
+                // Check again now the latch is published, the event loop may have caught up in between
+                if (!closed && (!postedFull || posted.get() >= maxPosted)) {
+                    latch.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                drained = null;
+            }
+
+            if (closed) {
+                return false;
+            }
+        }
+    }
+
+    private void release() {
+        CountDownLatch latch = drained;
+        if (latch != null) {
+            latch.countDown();
+        }
+    }
+
+}
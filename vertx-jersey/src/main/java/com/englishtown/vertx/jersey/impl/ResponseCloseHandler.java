@@ -0,0 +1,111 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.glassfish.jersey.server.ContainerRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Close handler of a vert.x response calling every handler added to it.  vert.x keeps a single close handler per
+ * response, so the container installs one of these when a request arrives and the parts reacting to a disconnect add
+ * to it rather than replacing each other's handlers.  It is kept in the {@link #PROPERTY_CLOSE_HANDLER} jersey request
+ * property, resources should add to it as well instead of setting their own response close handler.
+ */
+public class ResponseCloseHandler implements Handler<Void> {
+
+    /**
+     * The jersey request property holding the close handler of the request's response
+     */
+    public static final String PROPERTY_CLOSE_HANDLER = ResponseCloseHandler.class.getName();
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCloseHandler.class);
+
+    private List<Handler<Void>> handlers;
+    private boolean closed;
+
+    /**
+     * Installs a new close handler on a response, replacing the current one
+     *
+     * @param response the vert.x response
+     * @return the installed close handler
+     */
+    public static ResponseCloseHandler install(HttpServerResponse response) {
+        ResponseCloseHandler closeHandler = new ResponseCloseHandler();
+        response.closeHandler(closeHandler);
+        return closeHandler;
+    }
+
+    /**
+     * Returns the close handler of a jersey request, installing one on the response if the request has none
+     *
+     * @param request  the jersey request or null
+     * @param response the vert.x response
+     * @return the close handler
+     */
+    public static ResponseCloseHandler get(ContainerRequest request, HttpServerResponse response) {
+        Object property = (request == null ? null : request.getProperty(PROPERTY_CLOSE_HANDLER));
+        if (property instanceof ResponseCloseHandler) {
+            return (ResponseCloseHandler) property;
+        }
+        ResponseCloseHandler closeHandler = install(response);
+        if (request != null) {
+            request.setProperty(PROPERTY_CLOSE_HANDLER, closeHandler);
+        }
+        return closeHandler;
+    }
+
+    /**
+     * Adds a handler called when the connection closes, it is called right away if the connection already closed
+     *
+     * @param handler the handler
+     */
+    public void add(Handler<Void> handler) {
+        synchronized (this) {
+            if (!closed) {
+                if (handlers == null) {
+                    handlers = new ArrayList<>(2);
+                }
+                handlers.add(handler);
+                return;
+            }
+        }
+        handler.handle(null);
+    }
+
+    /**
+     * Whether the connection was closed
+     *
+     * @return true if closed
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void handle(Void event) {
+        List<Handler<Void>> closing;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closing = handlers;
+            handlers = null;
+        }
+        if (closing == null) {
+            return;
+        }
+        for (Handler<Void> handler : closing) {
+            try {
+                handler.handle(null);
+            } catch (RuntimeException e) {
+                logger.error("Response close handler threw exception: " + e.getMessage(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.englishtown.vertx.jersey.Blocking;
+import com.englishtown.vertx.jersey.MaxBodySize;
+import com.englishtown.vertx.jersey.StreamBody;
+import org.glassfish.jersey.server.model.Invocable;
+import org.glassfish.jersey.server.model.ResourceMethod;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * Container settings for a single jersey {@link ResourceMethod} that must be known before jersey routes the request.
+ * Unset values fall back to the {@link com.englishtown.vertx.jersey.JerseyOptions}.
+ */
+public class RoutePolicy {
+
+    private final Integer maxBodySize;
+    private final Boolean streamBody;
+    private final Boolean blocking;
+
+    public RoutePolicy(Integer maxBodySize, Boolean streamBody) {
+        this(maxBodySize, streamBody, null);
+    }
+
+    public RoutePolicy(Integer maxBodySize, Boolean streamBody, Boolean blocking) {
+        this.maxBodySize = maxBodySize;
+        this.streamBody = streamBody;
+        this.blocking = blocking;
+    }
+
+    /**
+     * Creates the policy from the resource method and resource class annotations
+     *
+     * @param resourceMethod the jersey resource method
+     * @return the policy or null if the resource method has no container annotations
+     */
+    public static RoutePolicy from(ResourceMethod resourceMethod) {
+
+        MaxBodySize maxBodySize = getAnnotation(resourceMethod, MaxBodySize.class);
+        StreamBody streamBody = getAnnotation(resourceMethod, StreamBody.class);
+        Blocking blocking = getAnnotation(resourceMethod, Blocking.class);
+
+        if (maxBodySize == null && streamBody == null && blocking == null) {
+            return null;
+        }
+
+        return new RoutePolicy(
+                maxBodySize == null ? null : maxBodySize.value(),
+                streamBody == null ? null : streamBody.value(),
+                blocking == null ? null : blocking.value());
+    }
+
+    /**
+     * Returns an annotation of the resource method, falling back to the resource class
+     *
+     * @param resourceMethod  the jersey resource method
+     * @param annotationClass the annotation type
+     * @param <A>             the annotation type
+     * @return the annotation or null
+     */
+    public static <A extends Annotation> A getAnnotation(ResourceMethod resourceMethod, Class<A> annotationClass) {
+
+        Invocable invocable = resourceMethod.getInvocable();
+        if (invocable == null) {
+            return null;
+        }
+
+        A annotation = getAnnotation(invocable.getHandlingMethod(), annotationClass);
+        if (annotation == null) {
+            annotation = getAnnotation(invocable.getDefinitionMethod(), annotationClass);
+        }
+        if (annotation == null && invocable.getHandler() != null) {
+            Class<?> handlerClass = invocable.getHandler().getHandlerClass();
+            annotation = (handlerClass == null ? null : handlerClass.getAnnotation(annotationClass));
+        }
+
+        return annotation;
+    }
+
+    private static <A extends Annotation> A getAnnotation(Method method, Class<A> annotationClass) {
+        return method == null ? null : method.getAnnotation(annotationClass);
+    }
+
+    /**
+     * The max request body size or null to use the configured value
+     *
+     * @return the max body size in bytes
+     */
+    public Integer getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Whether to stream the request body or null to use the configured value
+     *
+     * @return whether to stream the body
+     */
+    public Boolean getStreamBody() {
+        return streamBody;
+    }
+
+    /**
+     * Whether the resource method blocks or null to use the configured execution mode
+     *
+     * @return whether the resource blocks
+     */
+    public Boolean getBlocking() {
+        return blocking;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.glassfish.jersey.uri.PathTemplate;
+import org.glassfish.jersey.uri.UriTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the jersey resource model used to look up {@link RoutePolicy} settings for a request before it is
+ * handed to jersey.
+ * <p>
+ * The index is built once per application handler.  When no resource method declares a policy it is empty and
+ * lookups cost nothing.
+ */
+public class RoutePolicyIndex {
+
+    public static final RoutePolicyIndex EMPTY = new RoutePolicyIndex(Collections.emptyList());
+
+    private static class Route {
+
+        private final String httpMethod;
+        private final UriTemplate template;
+        private final RoutePolicy policy;
+
+        private Route(String httpMethod, UriTemplate template, RoutePolicy policy) {
+            this.httpMethod = httpMethod;
+            this.template = template;
+            this.policy = policy;
+        }
+
+    }
+
+    private final List<Route> routes;
+
+    private RoutePolicyIndex(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Builds the index for a jersey resource model
+     *
+     * @param resourceModel the jersey resource model
+     * @return the route policy index
+     */
+    public static RoutePolicyIndex build(ResourceModel resourceModel) {
+
+        if (resourceModel == null) {
+            return EMPTY;
+        }
+
+        List<Route> routes = new ArrayList<>();
+        boolean hasPolicy = false;
+
+        for (Resource resource : resourceModel.getRootResources()) {
+            hasPolicy |= addRoutes(routes, "", resource);
+        }
+
+        // Without any policies every lookup would return null anyway
+        if (!hasPolicy) {
+            return EMPTY;
+        }
+
+        // Match the most specific template first, the same as jersey
+        routes.sort((r1, r2) -> UriTemplate.COMPARATOR.compare(r1.template, r2.template));
+        return new RoutePolicyIndex(routes);
+    }
+
+    private static boolean addRoutes(List<Route> routes, String parentPath, Resource resource) {
+
+        String path = join(parentPath, resource.getPath());
+        UriTemplate template = new PathTemplate(path);
+        boolean hasPolicy = false;
+
+        for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+            RoutePolicy policy = RoutePolicy.from(resourceMethod);
+            hasPolicy |= (policy != null);
+            routes.add(new Route(resourceMethod.getHttpMethod(), template, policy));
+        }
+
+        for (Resource child : resource.getChildResources()) {
+            hasPolicy |= addRoutes(routes, path, child);
+        }
+
+        return hasPolicy;
+    }
+
+    static String join(String parentPath, String path) {
+        if (path == null || path.isEmpty()) {
+            return parentPath;
+        }
+        if (parentPath.endsWith("/")) {
+            parentPath = parentPath.substring(0, parentPath.length() - 1);
+        }
+        return path.startsWith("/") ? parentPath + path : parentPath + "/" + path;
+    }
+
+    /**
+     * Whether the index has no policies
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    /**
+     * Returns the policy of the resource method matching the request.  Like jersey, only the most specific template
+     * matching the path is considered, a request for another http method on it gets no policy.
+     *
+     * @param httpMethod the request http method
+     * @param path       the request path relative to the jersey base path
+     * @return the matching policy or null
+     */
+    public RoutePolicy match(String httpMethod, String path) {
+
+        UriTemplate matched = null;
+
+        for (Route route : routes) {
+            if (matched == null) {
+                if (route.template.getPattern().match(path) == null) {
+                    continue;
+                }
+                matched = route.template;
+            } else if (!matched.equals(route.template)) {
+                // Routes of a template are sorted together, jersey would answer 405
+                break;
+            }
+            if (httpMethod.equals(route.httpMethod)) {
+                return route.policy;
+            }
+        }
+
+        return null;
+    }
+
+}
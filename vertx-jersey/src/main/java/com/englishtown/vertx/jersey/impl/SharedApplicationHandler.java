@@ -0,0 +1,72 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import org.glassfish.jersey.server.ApplicationHandler;
+
+import java.util.function.Supplier;
+
+/**
+ * Reference counted jersey {@link ApplicationHandler} shared by the containers of a vert.x instance with the same
+ * configuration.  The first container to acquire it builds the handler, the last to release it shuts it down.
+ */
+public class SharedApplicationHandler implements Shareable {
+
+    static final String SHARED_MAP = "vertx-jersey.application-handlers";
+
+    private ApplicationHandler applicationHandler;
+    private int refCount;
+
+    /**
+     * Returns the shared application handler for a configuration key
+     *
+     * @param vertx the vert.x instance
+     * @param key   the configuration key
+     * @return the shared application handler
+     */
+    public static SharedApplicationHandler get(Vertx vertx, String key) {
+        LocalMap<String, SharedApplicationHandler> map = vertx.sharedData().getLocalMap(SHARED_MAP);
+        SharedApplicationHandler shared = map.get(key);
+        if (shared == null) {
+            SharedApplicationHandler existing = map.putIfAbsent(key, shared = new SharedApplicationHandler());
+            if (existing != null) {
+                shared = existing;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the application handler, building it if this is the first reference
+     *
+     * @param factory builds the application handler
+     * @return the application handler
+     */
+    public synchronized ApplicationHandler acquire(Supplier<ApplicationHandler> factory) {
+        if (applicationHandler == null) {
+            applicationHandler = factory.get();
+        }
+        refCount++;
+        return applicationHandler;
+    }
+
+    /**
+     * Releases a reference to the application handler
+     *
+     * @return the application handler if this was the last reference and it should be shut down, otherwise null
+     */
+    public synchronized ApplicationHandler release() {
+        if (refCount == 0 || --refCount > 0) {
+            return null;
+        }
+        ApplicationHandler handler = applicationHandler;
+        applicationHandler = null;
+        return handler;
+    }
+
+    public synchronized int getRefCount() {
+        return refCount;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.server.ContainerException;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Wraps the response writer of a request to run a completion callback once jersey commits or fails the response,
+ * such as releasing the {@link AdmissionController} permit of an admitted request
+ */
+public class TrackingResponseWriter implements ContainerResponseWriter {
+
+    private final ContainerResponseWriter delegate;
+    private final Runnable onComplete;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    public TrackingResponseWriter(ContainerResponseWriter delegate, AdmissionController admissionController) {
+        this(delegate, release(admissionController, System.nanoTime()));
+    }
+
+    public TrackingResponseWriter(ContainerResponseWriter delegate, Runnable onComplete) {
+        this.delegate = delegate;
+        this.onComplete = onComplete;
+    }
+
+    private static Runnable release(AdmissionController admissionController, long startNanos) {
+        return () -> admissionController.release(startNanos);
+    }
+
+    @Override
+    public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse responseContext) throws ContainerException {
+        return delegate.writeResponseStatusAndHeaders(contentLength, responseContext);
+    }
+
+    @Override
+    public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
+        return delegate.suspend(timeOut, timeUnit, timeoutHandler);
+    }
+
+    @Override
+    public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
+        delegate.setSuspendTimeout(timeOut, timeUnit);
+    }
+
+    @Override
+    public void commit() {
+        try {
+            delegate.commit();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void failure(Throwable error) {
+        try {
+            delegate.failure(error);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public boolean enableResponseBuffering() {
+        return delegate.enableResponseBuffering();
+    }
+
+    /**
+     * Runs the completion callback the first time it is called
+     */
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            onComplete.run();
+        }
+    }
+
+}
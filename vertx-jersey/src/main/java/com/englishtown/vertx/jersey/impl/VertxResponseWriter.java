@@ -23,25 +23,40 @@
 
 package com.englishtown.vertx.jersey.impl;
 
+import com.englishtown.vertx.jersey.JerseyOptions;
+import com.englishtown.vertx.jersey.ReadStreamOutput;
 import com.englishtown.vertx.jersey.WriteStreamOutput;
 import com.englishtown.vertx.jersey.inject.VertxPostResponseProcessor;
 import com.englishtown.vertx.jersey.inject.VertxResponseProcessor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaders.Names;
+import io.netty.handler.codec.http.HttpHeaders.Values;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import org.glassfish.jersey.message.internal.HeaderUtils;
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 
 import javax.inject.Inject;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.RuntimeDelegate;
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -53,14 +68,49 @@ public class VertxResponseWriter implements ContainerResponseWriter {
 
     private static final Logger logger = LoggerFactory.getLogger(VertxResponseWriter.class);
 
+    // Pre-encoded names of common response headers
+    private static final Map<String, CharSequence> HEADER_NAMES = new HashMap<>();
+
+    static {
+        for (String name : Arrays.asList(
+                HttpHeaders.ALLOW,
+                HttpHeaders.CACHE_CONTROL,
+                HttpHeaders.CONTENT_DISPOSITION,
+                HttpHeaders.CONTENT_ENCODING,
+                HttpHeaders.CONTENT_LANGUAGE,
+                HttpHeaders.CONTENT_LENGTH,
+                HttpHeaders.CONTENT_LOCATION,
+                HttpHeaders.CONTENT_TYPE,
+                HttpHeaders.DATE,
+                HttpHeaders.ETAG,
+                HttpHeaders.EXPIRES,
+                HttpHeaders.LAST_MODIFIED,
+                HttpHeaders.LINK,
+                HttpHeaders.LOCATION,
+                HttpHeaders.SET_COOKIE,
+                HttpHeaders.VARY,
+                HttpHeaders.WWW_AUTHENTICATE)) {
+            HEADER_NAMES.put(name, io.vertx.core.http.HttpHeaders.createOptimized(name));
+        }
+    }
+
+    /**
+     * Buffers the response body in a heap buffer that is handed to vert.x without copying.  vert.x wraps the buffers
+     * it is given as unreleasable and never signals when the socket write is done, so the body must not come from a
+     * pool, the buffer is garbage collected once written.
+     */
     private static class VertxOutputStream extends OutputStream {
 
         final HttpServerResponse response;
-        Buffer buffer = Buffer.buffer();
+        final Context context;
+        final boolean hasContentLength;
+        ByteBuf buffer;
         boolean isClosed;
 
-        private VertxOutputStream(HttpServerResponse response) {
+        private VertxOutputStream(HttpServerResponse response, Context context, boolean hasContentLength) {
             this.response = response;
+            this.context = context;
+            this.hasContentLength = hasContentLength;
         }
 
         /**
@@ -69,7 +119,7 @@ public class VertxResponseWriter implements ContainerResponseWriter {
         @Override
         public void write(int b) throws IOException {
             checkState();
-            buffer.appendByte((byte) b);
+            buffer().writeByte(b);
         }
 
         /**
@@ -78,7 +128,7 @@ public class VertxResponseWriter implements ContainerResponseWriter {
         @Override
         public void write(byte[] b) throws IOException {
             checkState();
-            buffer.appendBytes(b);
+            buffer().writeBytes(b);
         }
 
         /**
@@ -87,11 +137,7 @@ public class VertxResponseWriter implements ContainerResponseWriter {
         @Override
         public void write(byte[] b, int off, int len) throws IOException {
             checkState();
-            if (off == 0 && len == b.length) {
-                buffer.appendBytes(b);
-            } else {
-                buffer.appendBytes(Arrays.copyOfRange(b, off, off + len));
-            }
+            buffer().writeBytes(b, off, len);
         }
 
         /**
@@ -101,9 +147,8 @@ public class VertxResponseWriter implements ContainerResponseWriter {
         public void flush() throws IOException {
             checkState();
             // Only flush to underlying very.x response if the content-length has been set
-            if (buffer.length() > 0 && response.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
-                response.write(buffer);
-                buffer = Buffer.buffer();
+            if (buffer != null && buffer.isReadable() && hasContentLength) {
+                writeBuffer();
             }
         }
 
@@ -112,16 +157,33 @@ public class VertxResponseWriter implements ContainerResponseWriter {
          */
         @Override
         public void close() throws IOException {
-            // Write any remaining buffer to the vert.x response
-            // Set content-length if not set yet
-            if (buffer != null && buffer.length() > 0) {
-                if (!response.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
-                    response.headers().add(HttpHeaders.CONTENT_LENGTH, String.valueOf(buffer.length()));
-                }
-                response.write(buffer);
+            // Keep the remaining buffer for end() so the body and end of the response are written together
+            isClosed = true;
+        }
+
+        /**
+         * Ends the vert.x response with any remaining buffer in a single write
+         */
+        void end() {
+            if (buffer == null || !buffer.isReadable()) {
+                release();
+                response.end();
+                return;
             }
+            // Set content-length if not set yet, end() runs on the request context with the head written
+            if (!response.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
+                response.headers().add(HttpHeaders.CONTENT_LENGTH, String.valueOf(buffer.readableBytes()));
+            }
+            ByteBuf b = buffer;
+            buffer = null;
+            response.end(Buffer.buffer(b));
+        }
+
+        /**
+         * Drops any buffered body that was never handed to vert.x
+         */
+        void release() {
             buffer = null;
-            isClosed = true;
         }
 
         void checkState() {
@@ -129,15 +191,47 @@ public class VertxResponseWriter implements ContainerResponseWriter {
                 throw new RuntimeException("Stream is closed");
             }
         }
+
+        private ByteBuf buffer() {
+            if (buffer == null) {
+                buffer = Unpooled.buffer();
+            }
+            return buffer;
+        }
+
+        private void writeBuffer() {
+            ByteBuf b = buffer;
+            buffer = null;
+            runOnContext(context, v -> response.write(Buffer.buffer(b)));
+        }
     }
 
+    /**
+     * Coalesces writes to a chunked response so small writes do not each become their own http chunk.  Pending data
+     * is sent once it reaches the flush size, on {@link #flush()} (jersey flushes at every {@code ChunkedOutput}
+     * chunk boundary), after the flush interval, or on close.  Like {@link VertxOutputStream} the pending data is
+     * kept in unpooled heap buffers as vert.x never releases the buffers it writes.
+     */
     private static class VertxChunkedOutputStream extends OutputStream {
 
         private final HttpServerResponse response;
+        private final Vertx vertx;
+        private final int flushSize;
+        private final long flushInterval;
+        private final ResponseBackpressure backpressure;
+        private final Context context;
+        private ByteBuf pending;
+        private long flushTimerId = -1;
         private boolean isClosed;
 
-        private VertxChunkedOutputStream(HttpServerResponse response) {
+        private VertxChunkedOutputStream(HttpServerResponse response, Vertx vertx, Context context, int flushSize,
+                                         long flushInterval, ResponseBackpressure backpressure) {
             this.response = response;
+            this.vertx = vertx;
+            this.context = context;
+            this.flushSize = flushSize;
+            this.flushInterval = flushInterval;
+            this.backpressure = backpressure;
         }
 
         /**
@@ -145,10 +239,12 @@ public class VertxResponseWriter implements ContainerResponseWriter {
          */
         @Override
         public void write(int b) throws IOException {
-            checkState();
-            Buffer buffer = Buffer.buffer();
-            buffer.appendByte((byte) b);
-            response.write(buffer);
+            synchronized (this) {
+                checkState();
+                pending().writeByte(b);
+                written();
+            }
+            awaitWritable();
         }
 
         /**
@@ -156,8 +252,7 @@ public class VertxResponseWriter implements ContainerResponseWriter {
          */
         @Override
         public void write(byte[] b) throws IOException {
-            checkState();
-            response.write(Buffer.buffer(b));
+            write(b, 0, b.length);
         }
 
         /**
@@ -165,18 +260,35 @@ public class VertxResponseWriter implements ContainerResponseWriter {
          */
         @Override
         public void write(byte[] b, int off, int len) throws IOException {
-            checkState();
-            Buffer buffer = Buffer.buffer();
-            if (off == 0 && len == b.length) {
-                buffer.appendBytes(b);
-            } else {
-                buffer.appendBytes(Arrays.copyOfRange(b, off, off + len));
+            if (len == 0) {
+                return;
+            }
+            synchronized (this) {
+                checkState();
+                pending().writeBytes(b, off, len);
+                written();
+            }
+            awaitWritable();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void flush() throws IOException {
+            synchronized (this) {
+                checkState();
+                writePending();
             }
-            response.write(buffer);
+            awaitWritable();
         }
 
         @Override
-        public void close() throws IOException {
+        public synchronized void close() throws IOException {
+            if (isClosed) {
+                return;
+            }
+            writePending();
             isClosed = true;
         }
 
@@ -186,6 +298,62 @@ public class VertxResponseWriter implements ContainerResponseWriter {
             }
         }
 
+        private void awaitWritable() throws IOException {
+            // Suspend producers running off the event loop until the client catches up, outside the lock so the
+            // flush timer on the event loop is never blocked
+            if (!backpressure.awaitWritable()) {
+                throw new IOException("The connection was closed");
+            }
+        }
+
+        private ByteBuf pending() {
+            if (pending == null) {
+                pending = Unpooled.buffer();
+            }
+            return pending;
+        }
+
+        private void written() {
+            if (pending.readableBytes() >= flushSize) {
+                writePending();
+            } else if (flushInterval > 0 && flushTimerId < 0) {
+                flushTimerId = vertx.setTimer(flushInterval, id -> {
+                    synchronized (this) {
+                        if (id == flushTimerId) {
+                            flushTimerId = -1;
+                            if (!isClosed) {
+                                writePending();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+
+        private void writePending() {
+            if (flushTimerId >= 0) {
+                vertx.cancelTimer(flushTimerId);
+                flushTimerId = -1;
+            }
+            if (pending == null) {
+                return;
+            }
+            ByteBuf b = pending;
+            pending = null;
+            if (b.isReadable()) {
+                // Count the bytes until the event loop writes them so producers cannot get ahead of the write queue
+                int size = b.readableBytes();
+                backpressure.posted(size);
+                runOnContext(context, v -> {
+                    try {
+                        response.write(Buffer.buffer(b));
+                    } finally {
+                        backpressure.written(size);
+                    }
+                });
+            }
+        }
+
     }
 
     private static class NOPOutputStream extends OutputStream {
@@ -222,13 +390,22 @@ public class VertxResponseWriter implements ContainerResponseWriter {
 
     private final HttpServerRequest vertxRequest;
     private final Vertx vertx;
+    private final Context context;
     private final List<VertxResponseProcessor> responseProcessors;
     private final List<VertxPostResponseProcessor> postResponseProcessors;
+    private final int chunkFlushSize;
+    private final int chunkFlushInterval;
+    private final int writeQueueMaxSize;
 
     private long suspendTimerId;
     private TimeoutHandler timeoutHandler;
     private ContainerResponse jerseyResponse;
+    private VertxOutputStream outputStream;
+    private ReadStreamOutput readStreamOutput;
+    private File file;
+    private List<HttpRange> fileRanges;
     private boolean isWriteStream;
+    private boolean answered;
 
     @Inject
     public VertxResponseWriter(
@@ -236,10 +413,24 @@ public class VertxResponseWriter implements ContainerResponseWriter {
             Vertx vertx,
             List<VertxResponseProcessor> responseProcessors,
             List<VertxPostResponseProcessor> postResponseProcessors) {
+        this(vertxRequest, vertx, responseProcessors, postResponseProcessors, null);
+    }
+
+    public VertxResponseWriter(
+            HttpServerRequest vertxRequest,
+            Vertx vertx,
+            List<VertxResponseProcessor> responseProcessors,
+            List<VertxPostResponseProcessor> postResponseProcessors,
+            JerseyOptions options) {
         this.vertxRequest = vertxRequest;
         this.vertx = vertx;
+        // Writers are created on the request's event loop, resources may write from other threads
+        this.context = vertx.getOrCreateContext();
         this.responseProcessors = responseProcessors;
         this.postResponseProcessors = postResponseProcessors;
+        this.chunkFlushSize = (options == null ? DefaultJerseyOptions.DEFAULT_CHUNK_FLUSH_SIZE : options.getChunkFlushSize());
+        this.chunkFlushInterval = (options == null ? 0 : options.getChunkFlushInterval());
+        this.writeQueueMaxSize = (options == null ? 0 : options.getWriteQueueMaxSize());
     }
 
     /**
@@ -250,40 +441,236 @@ public class VertxResponseWriter implements ContainerResponseWriter {
         jerseyResponse = responseContext;
         HttpServerResponse response = vertxRequest.response();
 
-        // Write the status
-        response.setStatusCode(responseContext.getStatus());
-        response.setStatusMessage(responseContext.getStatusInfo().getReasonPhrase());
-
-        // Set the content length header
-        if (contentLength != -1) {
-            response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
-        }
-
-        for (final Map.Entry<String, List<String>> e : responseContext.getStringHeaders().entrySet()) {
-            for (final String value : e.getValue()) {
-                response.putHeader(e.getKey(), value);
-            }
-        }
-
-        // Run any response processors
-        if (!responseProcessors.isEmpty()) {
-            for (VertxResponseProcessor processor : responseProcessors) {
-                processor.process(response, responseContext);
-            }
+        // The request was already answered, such as a 413 for a streamed body over the max body size
+        if (response.ended()) {
+            answered = true;
+            return new NOPOutputStream();
         }
 
-        // Return output stream based on whether entity is chunked
+        // Return output stream based on whether entity is chunked.  vert.x responses are not thread safe, the status
+        // and headers are written on the request context like the body writes queued after them.
         if (responseContext.isChunked()) {
-            response.setChunked(true);
-            return new VertxChunkedOutputStream(response);
+            writeHead(response, contentLength, responseContext, r -> {
+                r.setChunked(true);
+                setWriteQueueMaxSize(r);
+            });
+            ResponseBackpressure backpressure = new ResponseBackpressure(response, getCloseHandler(response), writeQueueMaxSize);
+            return new VertxChunkedOutputStream(response, vertx, context, chunkFlushSize, chunkFlushInterval, backpressure);
+        } else if (responseContext.hasEntity() && FileBodyWriter.isFile(responseContext.getEntityClass())
+                && !responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            // The file is sent on commit, vert.x sets the content length.  Encoded files are streamed through the
+            // writer interceptors by the FileBodyWriter instead.
+            File file = FileBodyWriter.getFile(responseContext.getEntity());
+            this.file = file;
+            if (responseContext.getRequestContext() != null) {
+                responseContext.getRequestContext().setProperty(FileBodyWriter.PROPERTY_SEND_FILE, Boolean.TRUE);
+            }
+            writeHead(response, contentLength, responseContext, r -> {
+                r.putHeader(Names.ACCEPT_RANGES, Values.BYTES);
+                writeFileRanges(r, file);
+            });
+            return new NOPOutputStream();
+        } else if (responseContext.hasEntity() && ReadStreamOutput.class.isAssignableFrom(responseContext.getEntityClass())) {
+            readStreamOutput = (ReadStreamOutput) responseContext.getEntity();
+            long length = readStreamOutput.getLength();
+            writeHead(response, contentLength, responseContext, r -> {
+                if (contentLength == -1 && !r.headers().contains(HttpHeaders.CONTENT_LENGTH)) {
+                    if (length >= 0) {
+                        r.putHeader(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH, String.valueOf(length));
+                    } else {
+                        r.setChunked(true);
+                    }
+                }
+                setWriteQueueMaxSize(r);
+            });
+            return new NOPOutputStream();
         } else if (responseContext.hasEntity() && WriteStreamOutput.class.isAssignableFrom(responseContext.getEntityClass())) {
             WriteStreamOutput writeStreamOutput = (WriteStreamOutput) responseContext.getEntity();
-            writeStreamOutput.init(response, event -> end());
+            // The range is set before the stream is handed over so no write escapes the slicing
+            long length = (contentLength != -1 ? contentLength : HttpRange.parseLength(getHeader(HttpHeaders.CONTENT_LENGTH)));
+            HttpRange range = getWriteStreamRange(length, writeStreamOutput);
+            writeHead(response, contentLength, responseContext, r -> {
+                if (range != null) {
+                    setStatus(r, Response.Status.PARTIAL_CONTENT);
+                    r.putHeader(Names.CONTENT_RANGE, range.toContentRange(length));
+                    r.putHeader(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH, String.valueOf(range.length()));
+                }
+                setWriteQueueMaxSize(r);
+            });
+            if (writeStreamOutput instanceof DefaultWriteStreamOutput) {
+                // Writes from other threads hop to the request context, like the other output streams
+                ((DefaultWriteStreamOutput) writeStreamOutput).init(response, context, getCloseHandler(response),
+                        writeQueueMaxSize, event -> end());
+            } else {
+                writeStreamOutput.init(response, event -> end());
+            }
             isWriteStream = true;
             return new NOPOutputStream();
         } else {
-            return new VertxOutputStream(response);
+            writeHead(response, contentLength, responseContext, null);
+            boolean hasContentLength = (contentLength != -1 || getHeader(HttpHeaders.CONTENT_LENGTH) != null);
+            outputStream = new VertxOutputStream(response, context, hasContentLength);
+            return outputStream;
+        }
+    }
+
+    /**
+     * Writes the status, the headers and runs the response processors on the request context
+     *
+     * @param response        the vert.x response
+     * @param contentLength   the content length or -1 if unknown
+     * @param responseContext the jersey response
+     * @param entityHead      writes the entity specific head or null
+     */
+    private void writeHead(HttpServerResponse response, long contentLength, ContainerResponse responseContext,
+                           Handler<HttpServerResponse> entityHead) {
+        runOnContext(context, v -> {
+            // Write the status
+            response.setStatusCode(responseContext.getStatus());
+            response.setStatusMessage(responseContext.getStatusInfo().getReasonPhrase());
+
+            // Set the content length header
+            if (contentLength != -1) {
+                response.putHeader(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+            }
+
+            writeHeaders(response, responseContext.getHeaders());
+
+            // Run any response processors
+            if (!responseProcessors.isEmpty()) {
+                for (VertxResponseProcessor processor : responseProcessors) {
+                    processor.process(response, responseContext);
+                }
+            }
+
+            if (entityHead != null) {
+                entityHead.handle(response);
+            }
+        });
+    }
+
+    /**
+     * Resolves the requested byte ranges of a full (200) GET response
+     *
+     * @param length       the full body length
+     * @param lastModified the last modified time to check If-Range dates against when there is no Last-Modified header
+     * @return the ranges to send, an empty list if none are satisfiable, or null to send the full body
+     */
+    protected List<HttpRange> getRanges(long length, long lastModified) {
+
+        if (jerseyResponse.getStatus() != Response.Status.OK.getStatusCode() || vertxRequest.method() != HttpMethod.GET) {
+            return null;
         }
+
+        String range = vertxRequest.headers().get(Names.RANGE);
+        if (range == null) {
+            return null;
+        }
+
+        String header = getHeader(HttpHeaders.LAST_MODIFIED);
+        if (header != null) {
+            lastModified = HttpRange.parseDate(header);
+        }
+        if (!HttpRange.matchesIfRange(vertxRequest.headers().get(Names.IF_RANGE), getHeader(HttpHeaders.ETAG), lastModified)) {
+            return null;
+        }
+
+        return HttpRange.parse(range, length);
+    }
+
+    private void writeFileRanges(HttpServerResponse response, File file) {
+
+        long length = file.length();
+        List<HttpRange> ranges = getRanges(length, file.lastModified());
+        if (ranges == null) {
+            return;
+        }
+
+        if (ranges.isEmpty()) {
+            // Nothing to send, the response is ended on commit
+            this.file = null;
+            setStatus(response, Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.putHeader(Names.CONTENT_RANGE, "bytes */" + length);
+            response.putHeader(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH, "0");
+            return;
+        }
+
+        fileRanges = ranges;
+        setStatus(response, Response.Status.PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            response.putHeader(Names.CONTENT_RANGE, ranges.get(0).toContentRange(length));
+        }
+    }
+
+    private HttpRange getWriteStreamRange(long length, WriteStreamOutput writeStreamOutput) {
+
+        // The full length must be known up front and only single ranges can be cut from the stream
+        if (length < 0) {
+            return null;
+        }
+
+        List<HttpRange> ranges = getRanges(length, -1);
+        if (ranges == null || ranges.size() != 1) {
+            return null;
+        }
+
+        HttpRange range = ranges.get(0);
+        return (writeStreamOutput.setRange(range.getStart(), range.getEnd()) ? range : null);
+    }
+
+    private String getHeader(String name) {
+        Object value = jerseyResponse.getHeaders().getFirst(name);
+        return (value == null ? null : HeaderUtils.asString(value, RuntimeDelegate.getInstance()));
+    }
+
+    private void setStatus(HttpServerResponse response, Response.Status status) {
+        response.setStatusCode(status.getStatusCode());
+        response.setStatusMessage(status.getReasonPhrase());
+    }
+
+    private void setWriteQueueMaxSize(HttpServerResponse response) {
+        if (writeQueueMaxSize > 0) {
+            response.setWriteQueueMaxSize(writeQueueMaxSize);
+        }
+    }
+
+    /**
+     * Writes the jersey response headers to the vert.x response.  Header values are converted to strings without
+     * building jersey's string header map, and multi-valued headers are written in a single call to keep every value.
+     *
+     * @param response the vert.x response
+     * @param headers  the jersey response headers
+     */
+    protected void writeHeaders(HttpServerResponse response, MultivaluedMap<String, Object> headers) {
+
+        if (headers.isEmpty()) {
+            return;
+        }
+
+        RuntimeDelegate delegate = RuntimeDelegate.getInstance();
+
+        for (final Map.Entry<String, List<Object>> e : headers.entrySet()) {
+            List<Object> values = e.getValue();
+            if (values == null || values.isEmpty()) {
+                continue;
+            }
+
+            CharSequence name = HEADER_NAMES.get(e.getKey());
+            if (name == null) {
+                name = e.getKey();
+            }
+
+            if (values.size() == 1) {
+                response.putHeader(name, HeaderUtils.asString(values.get(0), delegate));
+            } else {
+                List<CharSequence> strings = new ArrayList<>(values.size());
+                for (Object value : values) {
+                    strings.add(HeaderUtils.asString(value, delegate));
+                }
+                response.putHeader(name, strings);
+            }
+        }
+
     }
 
     /**
@@ -339,16 +726,101 @@ public class VertxResponseWriter implements ContainerResponseWriter {
      */
     @Override
     public void commit() {
+        runOnContext(context, v -> doCommit());
+    }
+
+    private void doCommit() {
+        if (answered) {
+            return;
+        }
+        // Send files zero-copy, vert.x ends the response
+        if (file != null) {
+            if (fileRanges != null) {
+                sendFileRanges(file, fileRanges);
+            } else {
+                sendFile(file);
+            }
+            return;
+        }
+        // Pump a read stream once jersey is done with the response, it ends the response when complete
+        if (readStreamOutput != null) {
+            pump(readStreamOutput);
+            return;
+        }
         // End the vertx response if not a write stream
         if (!isWriteStream) {
             end();
         }
     }
 
+    protected void sendFile(File file) {
+        HttpServerResponse response = vertxRequest.response();
+        response.sendFile(file.getPath(), result -> {
+            if (result.succeeded()) {
+                callPostResponseProcessors();
+            } else {
+                logger.error("Failed to send file " + file + ": " + result.cause().getMessage(), result.cause());
+                response.close();
+            }
+        });
+    }
+
+    protected void sendFileRanges(File file, List<HttpRange> ranges) {
+        HttpServerResponse response = vertxRequest.response();
+        FileRangeSender sender = new FileRangeSender(vertx, response, file.getPath(), file.length(), ranges,
+                response.headers().get(HttpHeaders.CONTENT_TYPE));
+
+        response.putHeader(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH, String.valueOf(sender.getContentLength()));
+        if (sender.isMultipart()) {
+            response.putHeader(HttpHeaders.CONTENT_TYPE, sender.getContentType());
+        }
+
+        // The write queue never drains once the client goes away, close the file
+        getCloseHandler(response).add(aVoid -> sender.stop(new IOException("The connection was closed")));
+
+        sender.send(result -> {
+            if (result.succeeded()) {
+                end();
+            } else {
+                logger.error("Failed to send file ranges of " + file + ": " + result.cause().getMessage(), result.cause());
+                response.close();
+            }
+        });
+    }
+
+    protected void pump(ReadStreamOutput readStreamOutput) {
+        HttpServerResponse response = vertxRequest.response();
+        // The write queue never drains once the client goes away, stop reading the source
+        getCloseHandler(response).add(aVoid -> readStreamOutput.stop(new IOException("The connection was closed")));
+        readStreamOutput.pump(response, result -> {
+            if (result.succeeded()) {
+                end();
+            } else {
+                // The status and headers may already be sent, the client can only tell from the closed connection
+                logger.error("Failed to pump the read stream to the response: " + result.cause().getMessage(), result.cause());
+                response.close();
+            }
+        });
+    }
+
+    private ResponseCloseHandler getCloseHandler(HttpServerResponse response) {
+        return ResponseCloseHandler.get(jerseyResponse == null ? null : jerseyResponse.getRequestContext(), response);
+    }
+
     protected void end() {
-        // End the vertx response
-        vertxRequest.response().end();
+        runOnContext(context, v -> {
+            // End the vertx response, writing any buffered body with it
+            if (outputStream != null) {
+                outputStream.end();
+            } else {
+                vertxRequest.response().end();
+            }
 
+            callPostResponseProcessors();
+        });
+    }
+
+    private void callPostResponseProcessors() {
         // Call any post response processors
         if (!postResponseProcessors.isEmpty()) {
             for (VertxPostResponseProcessor processor : postResponseProcessors) {
@@ -364,14 +836,44 @@ public class VertxResponseWriter implements ContainerResponseWriter {
     public void failure(Throwable error) {
 
         logger.error(error.getMessage(), error);
-        HttpServerResponse response = vertxRequest.response();
 
-        // Set error status and end
-        Response.Status status = Response.Status.INTERNAL_SERVER_ERROR;
-        response.setStatusCode(status.getStatusCode());
-        response.setStatusMessage(status.getReasonPhrase());
-        response.end();
+        runOnContext(context, v -> {
+            HttpServerResponse response = vertxRequest.response();
 
+            // Drop any unwritten body buffer
+            if (outputStream != null) {
+                outputStream.release();
+            }
+
+            // Nothing more can be sent if the request was already answered
+            if (response.ended()) {
+                return;
+            }
+
+            // Set error status and end
+            Response.Status status = Response.Status.INTERNAL_SERVER_ERROR;
+            response.setStatusCode(status.getStatusCode());
+            response.setStatusMessage(status.getReasonPhrase());
+            response.end();
+        });
+
+    }
+
+    /**
+     * Runs an action on the request's event loop.  Resources invoked off the event loop (a worker execution mode or a
+     * streamed request body) complete responses on their own thread, writes hop back so vert.x sees them in order.
+     * The action runs directly only on the request context's own event loop, not on any other event loop, and not on
+     * a worker thread where vert.x reports the calling context as current.
+     *
+     * @param context the request context or null to run the action directly
+     * @param action  the action
+     */
+    static void runOnContext(Context context, Handler<Void> action) {
+        if (context == null || (Vertx.currentContext() == context && Context.isOnEventLoopThread())) {
+            action.handle(null);
+        } else {
+            context.runOnContext(action);
+        }
     }
 
     /**
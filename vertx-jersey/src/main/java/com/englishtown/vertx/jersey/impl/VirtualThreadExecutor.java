@@ -0,0 +1,56 @@
+package com.englishtown.vertx.jersey.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs each task on a new virtual thread.  Virtual threads need Java 21, the container is built for Java 8 so
+ * {@code Thread.startVirtualThread} is looked up at runtime.
+ */
+public class VirtualThreadExecutor implements Executor {
+
+    private static final MethodHandle START_VIRTUAL_THREAD = findStartVirtualThread();
+
+    public VirtualThreadExecutor() {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads are not supported by this JVM, Java 21 or later is required");
+        }
+    }
+
+    /**
+     * Whether the JVM supports virtual threads
+     *
+     * @return true if virtual threads can be started
+     */
+    public static boolean isSupported() {
+        return START_VIRTUAL_THREAD != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(Runnable command) {
+        try {
+            // invokeExact needs the exact return type
+            Thread thread = (Thread) START_VIRTUAL_THREAD.invokeExact(command);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RejectedExecutionException(t);
+        }
+    }
+
+    private static MethodHandle findStartVirtualThread() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Thread.class, "startVirtualThread",
+                    MethodType.methodType(Thread.class, Runnable.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+}
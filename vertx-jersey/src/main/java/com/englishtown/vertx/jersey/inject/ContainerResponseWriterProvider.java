@@ -23,6 +23,7 @@
 
 package com.englishtown.vertx.jersey.inject;
 
+import com.englishtown.vertx.jersey.VertxContainer;
 import io.vertx.core.http.HttpServerRequest;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
@@ -32,6 +33,14 @@ import org.glassfish.jersey.server.spi.ContainerResponseWriter;
  */
 public interface ContainerResponseWriterProvider {
 
+    /**
+     * Initializes the provider with the container before any requests are handled
+     *
+     * @param container the vert.x container
+     */
+    default void init(VertxContainer container) {
+    }
+
     /**
      * Returns the response writer
      *
@@ -23,6 +23,8 @@
 
 package com.englishtown.vertx.jersey.inject.impl;
 
+import com.englishtown.vertx.jersey.JerseyOptions;
+import com.englishtown.vertx.jersey.VertxContainer;
 import com.englishtown.vertx.jersey.impl.VertxResponseWriter;
 import com.englishtown.vertx.jersey.inject.ContainerResponseWriterProvider;
 import com.englishtown.vertx.jersey.inject.VertxPostResponseProcessor;
@@ -45,6 +47,7 @@ public class VertxResponseWriterProvider implements ContainerResponseWriterProvi
     private final Vertx vertx;
     private final List<VertxResponseProcessor> responseProcessors;
     private final List<VertxPostResponseProcessor> postResponseProcessors;
+    private JerseyOptions options;
 
     @Inject
     public VertxResponseWriterProvider(
@@ -56,11 +59,16 @@ public class VertxResponseWriterProvider implements ContainerResponseWriterProvi
         this.postResponseProcessors = postResponseProcessors;
     }
 
+    @Override
+    public void init(VertxContainer container) {
+        options = container.getOptions();
+    }
+
     @Override
     public ContainerResponseWriter get(
             HttpServerRequest vertxRequest,
             ContainerRequest jerseyRequest) {
-        return new VertxResponseWriter(vertxRequest, vertx, responseProcessors, postResponseProcessors);
+        return new VertxResponseWriter(vertxRequest, vertx, responseProcessors, postResponseProcessors, options);
     }
 
 }
@@ -0,0 +1,106 @@
+package com.englishtown.vertx.jersey.processor;
+
+import com.englishtown.vertx.jersey.impl.ResourceIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor writing the {@link ResourceIndex} of a compilation: every public class annotated with
+ * {@link javax.ws.rs.Path} or {@link javax.ws.rs.ext.Provider}.  It is registered as a service so it runs when
+ * vertx-jersey is on the compile classpath.
+ */
+@SupportedAnnotationTypes({"javax.ws.rs.Path", "javax.ws.rs.ext.Provider"})
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+    private final Set<String> classNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        if (roundEnv.processingOver()) {
+            if (!classNames.isEmpty()) {
+                readExisting();
+                write();
+            }
+            return false;
+        }
+
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (isIndexed(element)) {
+                    classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+
+        // Other processors may use the annotations too
+        return false;
+    }
+
+    private boolean isIndexed(Element element) {
+        if (element.getKind() != ElementKind.CLASS || !element.getModifiers().contains(Modifier.PUBLIC)) {
+            return false;
+        }
+        TypeElement type = (TypeElement) element;
+        return type.getNestingKind() == NestingKind.TOP_LEVEL
+                || (type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC));
+    }
+
+    /**
+     * Keeps entries of an index written by a previous incremental compile whose classes still exist
+     */
+    private void readExisting() {
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ResourceIndex.LOCATION);
+            try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")
+                            && processingEnv.getElementUtils().getTypeElement(line.replace('$', '.')) != null) {
+                        classNames.add(line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No previous index
+        }
+    }
+
+    private void write() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ResourceIndex.LOCATION);
+            try (Writer writer = index.openWriter()) {
+                for (String className : classNames) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write the jersey resource index " + ResourceIndex.LOCATION + ": " + e.getMessage());
+        }
+    }
+
+}
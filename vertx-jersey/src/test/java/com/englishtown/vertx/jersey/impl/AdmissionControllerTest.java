@@ -0,0 +1,228 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link AdmissionController} unit tests
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AdmissionControllerTest {
+
+    @Mock
+    Context context;
+    @Mock
+    Vertx vertx;
+
+    AdmissionController.SharedStats stats;
+    AtomicInteger runs = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        stats = new AdmissionController.SharedStats();
+    }
+
+    @Test
+    public void testSubmit_Static() throws Exception {
+
+        AdmissionController controller = new AdmissionController(new AdmissionController.StaticLimit(1), 0, 1, stats);
+
+        assertTrue(controller.submit(runs::incrementAndGet, context));
+        assertEquals(1, runs.get());
+        assertEquals(1, controller.getInFlight());
+
+        // Queued
+        assertTrue(controller.submit(runs::incrementAndGet, context));
+        assertEquals(1, runs.get());
+        assertEquals(1, controller.getQueued());
+        assertEquals(1, stats.getQueued());
+
+        // Rejected
+        assertFalse(controller.submit(runs::incrementAndGet, context));
+        assertEquals(1, stats.getRejected());
+
+        // Releasing runs the queued request on its context
+        verify(context, never()).runOnContext(any(Handler.class));
+        controller.release(System.nanoTime());
+
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(context).runOnContext(captor.capture());
+        captor.getValue().handle(null);
+
+        assertEquals(2, runs.get());
+        assertEquals(1, controller.getInFlight());
+        assertEquals(0, controller.getQueued());
+        assertEquals(1, stats.getInFlight());
+
+        controller.release(System.nanoTime());
+        assertEquals(0, controller.getInFlight());
+        assertEquals(0, stats.getInFlight());
+
+    }
+
+    @Test
+    public void testSubmit_Global() throws Exception {
+
+        AdmissionController controller1 = new AdmissionController(new AdmissionController.StaticLimit(10), 1, 10, stats);
+        AdmissionController controller2 = new AdmissionController(new AdmissionController.StaticLimit(10), 1, 10, stats);
+
+        assertTrue(controller1.submit(runs::incrementAndGet, context));
+        assertFalse(controller2.submit(runs::incrementAndGet, context));
+        assertEquals(1, runs.get());
+        assertEquals(1, stats.getRejected());
+
+        controller1.release(System.nanoTime());
+        assertTrue(controller2.submit(runs::incrementAndGet, context));
+        assertEquals(2, runs.get());
+
+    }
+
+    @Test
+    public void testSubmit_Global_Rechecked_When_Dequeued() throws Exception {
+
+        AdmissionController controller2 = new AdmissionController(new AdmissionController.StaticLimit(10), 2, 10, stats);
+        AdmissionController controller1 = new AdmissionController(new AdmissionController.Limit() {
+            @Override
+            public int getLimit() {
+                return 1;
+            }
+
+            @Override
+            public void onSample(long latencyNanos) {
+                // The other handler takes the global permit before the queued request is admitted
+                controller2.submit(runs::incrementAndGet, context);
+            }
+        }, 2, 10, stats);
+        AtomicInteger rejected = new AtomicInteger();
+
+        assertTrue(controller1.submit(runs::incrementAndGet, context));
+        assertTrue(controller2.submit(runs::incrementAndGet, context));
+        assertTrue(controller1.submit(runs::incrementAndGet, rejected::incrementAndGet, context));
+        assertEquals(1, controller1.getQueued());
+
+        controller1.release(System.nanoTime());
+
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(context).runOnContext(captor.capture());
+        captor.getValue().handle(null);
+
+        assertEquals(3, runs.get());
+        assertEquals(1, rejected.get());
+        assertEquals(0, controller1.getInFlight());
+        assertEquals(0, controller1.getQueued());
+        assertEquals(2, stats.getInFlight());
+        assertEquals(1, stats.getRejected());
+
+    }
+
+    @Test
+    public void testSubmit_Queue_Timeout() throws Exception {
+
+        when(vertx.setTimer(eq(100L), any(Handler.class))).thenReturn(7L);
+        AdmissionController controller = new AdmissionController(new AdmissionController.StaticLimit(1), 0, 1, 100, stats, vertx);
+        AtomicInteger rejected = new AtomicInteger();
+
+        assertTrue(controller.submit(runs::incrementAndGet, context));
+        assertTrue(controller.submit(runs::incrementAndGet, rejected::incrementAndGet, context));
+
+        ArgumentCaptor<Handler> timerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(100L), timerCaptor.capture());
+        timerCaptor.getValue().handle(7L);
+
+        assertEquals(0, controller.getQueued());
+        assertEquals(0, stats.getQueued());
+        assertEquals(1, stats.getRejected());
+
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(context).runOnContext(captor.capture());
+        captor.getValue().handle(null);
+        assertEquals(1, rejected.get());
+
+        // The timed out request is not admitted
+        controller.release(System.nanoTime());
+        verify(context).runOnContext(any(Handler.class));
+        assertEquals(1, runs.get());
+        assertEquals(0, controller.getInFlight());
+
+    }
+
+    @Test
+    public void testSubmit_Queue_Timeout_Cancelled() throws Exception {
+
+        when(vertx.setTimer(eq(100L), any(Handler.class))).thenReturn(7L);
+        AdmissionController controller = new AdmissionController(new AdmissionController.StaticLimit(1), 0, 1, 100, stats, vertx);
+
+        assertTrue(controller.submit(runs::incrementAndGet, context));
+        assertTrue(controller.submit(runs::incrementAndGet, context));
+
+        controller.release(System.nanoTime());
+        verify(vertx).cancelTimer(7L);
+        assertEquals(0, controller.getQueued());
+        assertEquals(1, controller.getInFlight());
+
+    }
+
+    @Test
+    public void testPermit_Released_Once() throws Exception {
+
+        AdmissionController controller = new AdmissionController(new AdmissionController.StaticLimit(1), 0, 0, stats);
+
+        assertTrue(controller.submit(runs::incrementAndGet, context));
+        AdmissionController.Permit permit = controller.permit();
+
+        permit.release();
+        permit.release();
+        assertEquals(0, controller.getInFlight());
+        assertEquals(0, stats.getInFlight());
+
+    }
+
+    @Test
+    public void testAimdLimit() throws Exception {
+
+        AdmissionController.AimdLimit limit = new AdmissionController.AimdLimit(10, 100);
+        assertEquals(10, limit.getLimit());
+
+        long now = 0;
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+        limit.onSample(slow, now);
+        assertEquals(9, limit.getLimit());
+
+        // Slow requests already in flight at the cut do not cut the limit again
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(slow, now + i);
+        }
+        assertEquals(9, limit.getLimit());
+
+        // One cut per latency window
+        for (int i = 0; i < 20; i++) {
+            now += slow;
+            limit.onSample(slow, now);
+        }
+        assertEquals(1, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), now);
+        }
+        assertEquals(10, limit.getLimit());
+
+    }
+
+}
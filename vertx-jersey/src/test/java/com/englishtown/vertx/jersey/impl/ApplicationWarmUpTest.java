@@ -0,0 +1,80 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ApplicationWarmUp} unit tests
+ */
+public class ApplicationWarmUpTest {
+
+    static final AtomicInteger hits = new AtomicInteger();
+
+    ApplicationHandler applicationHandler;
+
+    @Before
+    public void setUp() throws Exception {
+        hits.set(0);
+        applicationHandler = new ApplicationHandler(new ResourceConfig(WarmUpResource.class));
+    }
+
+    @Test
+    public void testGetRequests() throws Exception {
+
+        ApplicationWarmUp warmUp = new ApplicationWarmUp(applicationHandler, URI.create("/"),
+                Arrays.asList("*", "head /warm", "/other"), 1);
+
+        List<String[]> requests = warmUp.getRequests();
+
+        // The templated resource method is skipped
+        assertEquals(3, requests.size());
+        assertArrayEquals(new String[]{"GET", "/warm"}, requests.get(0));
+        assertArrayEquals(new String[]{"HEAD", "/warm"}, requests.get(1));
+        assertArrayEquals(new String[]{"GET", "/other"}, requests.get(2));
+
+    }
+
+    @Test
+    public void testRun() throws Exception {
+
+        ApplicationWarmUp warmUp = new ApplicationWarmUp(applicationHandler, URI.create("/"),
+                Collections.singletonList("/warm"), 2);
+
+        assertEquals(2, warmUp.run());
+        assertEquals(2, hits.get());
+
+    }
+
+    @Path("warm")
+    public static class WarmUpResource {
+
+        @GET
+        public String get() {
+            hits.incrementAndGet();
+            return "warm";
+        }
+
+        @GET
+        @Path("{id}")
+        public String get(@PathParam("id") String id) {
+            hits.incrementAndGet();
+            return id;
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Vertx;
+import org.glassfish.jersey.server.ExtendedUriInfo;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link BlockedTimeEventListener} unit tests
+ */
+public class BlockedTimeEventListenerTest {
+
+    private Vertx vertx;
+    private ResourceMethod resourceMethod;
+    private AtomicLong invocationNanos = new AtomicLong(-1);
+    private AtomicReference<ResourceMethod> blocked = new AtomicReference<>();
+    private BlockedTimeEventListener listener;
+
+    @Before
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        // ResourceMethod is final, build a real one
+        resourceMethod = Resource.from(BlockingResource.class).getResourceMethods().get(0);
+
+        listener = new BlockedTimeEventListener() {
+            @Override
+            protected void onInvocation(ResourceMethod resourceMethod, long nanos) {
+                invocationNanos.set(nanos);
+            }
+
+            @Override
+            protected void onBlocked(ResourceMethod resourceMethod, long nanos, StackTraceElement[] stack) {
+                blocked.set(resourceMethod);
+            }
+        };
+
+        ApplicationEvent event = mock(ApplicationEvent.class);
+        when(event.getType()).thenReturn(ApplicationEvent.Type.INITIALIZATION_START);
+        when(event.getResourceConfig()).thenReturn(new ResourceConfig()
+                .property(BlockedTimeEventListener.PROPERTY_THRESHOLD, 5));
+        listener.onEvent(event);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        vertx.close();
+    }
+
+    @Test
+    public void testOnRequest_Off_Event_Loop() throws Exception {
+        assertNull(listener.onRequest(mock(RequestEvent.class)));
+    }
+
+    @Test
+    public void testOnRequest_Blocked() throws Exception {
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        vertx.runOnContext(v -> {
+            try {
+                RequestEventListener requestListener = listener.onRequest(mock(RequestEvent.class));
+                assertNotNull(requestListener);
+
+                requestListener.onEvent(event(RequestEvent.Type.RESOURCE_METHOD_START));
+                Thread.sleep(10);
+                requestListener.onEvent(event(RequestEvent.Type.RESOURCE_METHOD_FINISHED));
+                done.complete(null);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+
+        done.get(5, TimeUnit.SECONDS);
+        assertTrue(invocationNanos.get() >= TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(resourceMethod, blocked.get());
+
+    }
+
+    private RequestEvent event(RequestEvent.Type type) {
+        ExtendedUriInfo uriInfo = mock(ExtendedUriInfo.class);
+        when(uriInfo.getMatchedResourceMethod()).thenReturn(resourceMethod);
+        RequestEvent event = mock(RequestEvent.class);
+        when(event.getType()).thenReturn(type);
+        when(event.getUriInfo()).thenReturn(uriInfo);
+        return event;
+    }
+
+    @Path("blocking")
+    public static class BlockingResource {
+        @GET
+        public String get() {
+            return "blocking";
+        }
+    }
+
+}
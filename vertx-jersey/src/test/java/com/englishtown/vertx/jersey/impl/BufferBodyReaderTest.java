@@ -0,0 +1,124 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.inject.Provider;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link BufferBodyReader} unit tests
+ */
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class BufferBodyReaderTest {
+
+    BufferBodyReader reader;
+    MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+    Annotation[] annotations = new Annotation[0];
+
+    @Mock
+    Provider<ContainerRequest> requestProvider;
+    @Mock
+    ContainerRequest request;
+    @Mock
+    Configuration configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        when(requestProvider.get()).thenReturn(request);
+        when(configuration.getProperty(eq(BufferBodyReader.PROPERTY_READ_JSON))).thenReturn(true);
+        reader = new BufferBodyReader(requestProvider, configuration);
+    }
+
+    private Object read(Class<?> type, InputStream entityStream) throws Exception {
+        return reader.readFrom((Class<Object>) type, type, annotations, MediaType.APPLICATION_JSON_TYPE, headers, entityStream);
+    }
+
+    @Test
+    public void testIsReadable() throws Exception {
+        assertTrue(reader.isReadable(Buffer.class, Buffer.class, annotations, MediaType.WILDCARD_TYPE));
+        assertTrue(reader.isReadable(JsonObject.class, JsonObject.class, annotations, MediaType.APPLICATION_JSON_TYPE));
+        assertTrue(reader.isReadable(JsonArray.class, JsonArray.class, annotations, MediaType.valueOf("application/vnd.test+json")));
+        assertTrue(reader.isReadable(byte[].class, byte[].class, annotations, MediaType.WILDCARD_TYPE));
+        assertFalse(reader.isReadable(String.class, String.class, annotations, MediaType.WILDCARD_TYPE));
+    }
+
+    @Test
+    public void testIsReadable_Json_Not_Json_Media_Type() throws Exception {
+        assertFalse(reader.isReadable(JsonObject.class, JsonObject.class, annotations, MediaType.WILDCARD_TYPE));
+        assertFalse(reader.isReadable(JsonArray.class, JsonArray.class, annotations, MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Test
+    public void testIsReadable_Json_Disabled() throws Exception {
+        reader = new BufferBodyReader(requestProvider);
+        assertFalse(reader.isReadable(JsonObject.class, JsonObject.class, annotations, MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(reader.isReadable(JsonArray.class, JsonArray.class, annotations, MediaType.APPLICATION_JSON_TYPE));
+        assertTrue(reader.isReadable(Buffer.class, Buffer.class, annotations, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    @Test
+    public void testReadFrom_Aggregated_Buffer() throws Exception {
+
+        Buffer body = Buffer.buffer("{\"a\":1}");
+        BufferInputStream stream = new BufferInputStream(body);
+        when(request.getProperty(eq(BufferBodyReader.PROPERTY_BODY))).thenReturn(stream);
+
+        assertSame(body, read(Buffer.class, stream));
+
+        JsonObject json = (JsonObject) read(JsonObject.class, stream);
+        assertEquals(1, json.getInteger("a").intValue());
+
+        assertArrayEquals(body.getBytes(), (byte[]) read(byte[].class, stream));
+
+    }
+
+    @Test
+    public void testReadFrom_Entity_Stream() throws Exception {
+
+        JsonArray json = (JsonArray) read(JsonArray.class, new ByteArrayInputStream("[1,2]".getBytes()));
+        assertEquals(2, json.size());
+
+        Buffer buffer = (Buffer) read(Buffer.class, new ByteArrayInputStream("abc".getBytes()));
+        assertEquals("abc", buffer.toString());
+
+    }
+
+    @Test
+    public void testReadFrom_Content_Encoding() throws Exception {
+
+        BufferInputStream stream = new BufferInputStream(Buffer.buffer("abc"));
+        when(request.getProperty(eq(BufferBodyReader.PROPERTY_BODY))).thenReturn(stream);
+        headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        Buffer buffer = (Buffer) read(Buffer.class, new ByteArrayInputStream("xyz".getBytes()));
+        assertEquals("xyz", buffer.toString());
+
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testReadFrom_Invalid_Json() throws Exception {
+        read(JsonObject.class, new ByteArrayInputStream("{".getBytes()));
+    }
+
+}
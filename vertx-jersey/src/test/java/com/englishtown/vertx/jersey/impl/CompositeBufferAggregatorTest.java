@@ -0,0 +1,49 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link CompositeBufferAggregator} unit tests
+ */
+public class CompositeBufferAggregatorTest {
+
+    @Test
+    public void testAppend() throws Exception {
+
+        CompositeBufferAggregator aggregator = new CompositeBufferAggregator();
+
+        assertEquals(0, aggregator.length());
+        assertEquals(3, aggregator.append(Buffer.buffer("abc")));
+        assertEquals(3, aggregator.append(Buffer.buffer()));
+        assertEquals(6, aggregator.append(Buffer.buffer("def")));
+
+        assertEquals("abcdef", aggregator.toBuffer().toString("UTF-8"));
+
+    }
+
+    @Test
+    public void testToInputStream() throws Exception {
+
+        CompositeBufferAggregator aggregator = new CompositeBufferAggregator();
+        for (int i = 0; i < 100; i++) {
+            aggregator.append(Buffer.buffer(String.valueOf(i % 10)));
+        }
+
+        InputStream inputStream = aggregator.toInputStream();
+        StringBuilder sb = new StringBuilder();
+        int b;
+        while ((b = inputStream.read()) != -1) {
+            sb.append((char) b);
+        }
+
+        assertEquals(100, sb.length());
+        assertEquals("0123456789", sb.substring(90));
+
+    }
+
+}
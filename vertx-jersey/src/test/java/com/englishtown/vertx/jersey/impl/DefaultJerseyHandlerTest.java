@@ -24,12 +24,16 @@
 package com.englishtown.vertx.jersey.impl;
 
 import com.englishtown.vertx.jersey.ApplicationHandlerDelegate;
+import com.englishtown.vertx.jersey.Blocking;
+import com.englishtown.vertx.jersey.ExecutionMode;
 import com.englishtown.vertx.jersey.JerseyOptions;
+import com.englishtown.vertx.jersey.MaxBodySize;
 import com.englishtown.vertx.jersey.VertxContainer;
 import com.englishtown.vertx.jersey.inject.ContainerResponseWriterProvider;
 import com.englishtown.vertx.jersey.inject.VertxRequestProcessor;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
@@ -41,10 +45,15 @@ import io.vertx.core.http.impl.HeadersAdaptor;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.SharedData;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ExtendedResourceContext;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceModel;
 import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.junit.Before;
@@ -55,15 +64,21 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -113,6 +128,8 @@ public class DefaultJerseyHandlerTest {
         when(applicationHandlerDelegate.getServiceLocator()).thenReturn(serviceLocator);
         when(options.getMaxBodySize()).thenReturn(1024);
         when(options.getBaseUri()).thenReturn(URI.create("/test/"));
+        when(options.getRequestBodyMethods()).thenReturn(DefaultJerseyOptions.DEFAULT_REQUEST_BODY_METHODS);
+        when(options.getRequestBodyMediaTypes()).thenReturn(DefaultJerseyOptions.DEFAULT_REQUEST_BODY_MEDIA_TYPES);
 
         when(request.absoluteURI()).thenReturn(URI.create("http://test.englishtown.com/test").toString());
         when(request.response()).thenReturn(response);
@@ -144,6 +161,50 @@ public class DefaultJerseyHandlerTest {
 
     }
 
+    @Test
+    public void testHandle_Host_Header() throws Exception {
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.HOST, "test.englishtown.com:8080");
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.uri()).thenReturn("/test/resource?a=b");
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        ArgumentCaptor<ContainerRequest> captor = ArgumentCaptor.forClass(ContainerRequest.class);
+        verify(applicationHandlerDelegate).handle(captor.capture());
+        verify(request, never()).absoluteURI();
+
+        ContainerRequest jerseyRequest = captor.getValue();
+        assertEquals(URI.create("http://test.englishtown.com:8080/test/"), jerseyRequest.getBaseUri());
+        assertEquals(URI.create("http://test.englishtown.com:8080/test/resource?a=b"), jerseyRequest.getRequestUri());
+
+    }
+
+    @Test
+    public void testHandle_Copy_Headers() throws Exception {
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add("X-Forwarded-For", "10.0.0.1");
+        headers.add("X-Forwarded-For", "10.0.0.2");
+        headers.add(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        ArgumentCaptor<ContainerRequest> captor = ArgumentCaptor.forClass(ContainerRequest.class);
+        verify(applicationHandlerDelegate).handle(captor.capture());
+
+        ContainerRequest jerseyRequest = captor.getValue();
+        assertEquals(Arrays.asList("10.0.0.1", "10.0.0.2"), jerseyRequest.getRequestHeader("x-forwarded-for"));
+        assertEquals(MediaType.APPLICATION_JSON, jerseyRequest.getHeaderString(HttpHeaders.ACCEPT));
+
+    }
+
     @Test
     public void testHandle_JSON_POST() throws Exception {
 
@@ -166,6 +227,268 @@ public class DefaultJerseyHandlerTest {
 
     }
 
+    @Test
+    public void testHandle_Content_Length_Too_Large() throws Exception {
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.CONTENT_LENGTH, "1025");
+        when(request.method()).thenReturn(HttpMethod.POST);
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        when(response.setStatusMessage(anyString())).thenReturn(response);
+        when(response.putHeader(anyString(), anyString())).thenReturn(response);
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        verify(response).setStatusCode(eq(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code()));
+        verify(response).end();
+        verify(response).close();
+        verify(request, never()).handler(any());
+        verify(applicationHandlerDelegate, never()).handle(any(ContainerRequest.class));
+
+    }
+
+    @Path("upload")
+    public static class UploadResource {
+
+        @POST
+        @MaxBodySize(4096)
+        public void upload() {
+        }
+
+    }
+
+    @Test
+    public void testHandle_Route_Max_Body_Size() throws Exception {
+
+        ExtendedResourceContext resourceContext = mock(ExtendedResourceContext.class);
+        when(resourceContext.getResourceModel()).thenReturn(new ResourceModel.Builder(false)
+                .addResource(Resource.from(UploadResource.class))
+                .build());
+        when(serviceLocator.getService(ExtendedResourceContext.class)).thenReturn(resourceContext);
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        headers.add(HttpHeaders.CONTENT_LENGTH, "2048");
+        when(request.method()).thenReturn(HttpMethod.POST);
+        when(request.path()).thenReturn("/test/upload");
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        verify(response, never()).setStatusCode(anyInt());
+        verify(request).handler(any());
+
+        // Other routes keep the configured limit
+        when(request.path()).thenReturn("/test/other");
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        when(response.setStatusMessage(anyString())).thenReturn(response);
+        when(response.putHeader(anyString(), anyString())).thenReturn(response);
+
+        jerseyHandler.handle(request);
+
+        verify(response).setStatusCode(eq(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code()));
+
+    }
+
+    @Test
+    public void testHandle_Route_Policy_Resolved_Once() throws Exception {
+
+        ExtendedResourceContext resourceContext = mock(ExtendedResourceContext.class);
+        when(resourceContext.getResourceModel()).thenReturn(new ResourceModel.Builder(false)
+                .addResource(Resource.from(UploadResource.class))
+                .build());
+        when(serviceLocator.getService(ExtendedResourceContext.class)).thenReturn(resourceContext);
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        when(request.method()).thenReturn(HttpMethod.POST);
+        when(request.path()).thenReturn("/test/upload");
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+
+        DefaultJerseyHandler handler = spy(jerseyHandler);
+        handler.init(container);
+        handler.handle(request);
+
+        verify(request).endHandler(endHandlerCaptor.capture());
+        endHandlerCaptor.getValue().handle(null);
+
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+        verify(handler, times(1)).getRoutePolicy(request);
+
+    }
+
+    @Path("reports")
+    @Blocking
+    public static class ReportResource {
+
+        @GET
+        public void report() {
+        }
+
+        @GET
+        @Path("cached")
+        @Blocking(false)
+        public void cached() {
+        }
+
+    }
+
+    @Test
+    public void testHandle_Worker() throws Exception {
+
+        when(options.getExecutionMode()).thenReturn(ExecutionMode.WORKER);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).executeBlocking(captor.capture(), eq(false), any(Handler.class));
+        verify(applicationHandlerDelegate, never()).handle(any(ContainerRequest.class));
+
+        captor.getValue().handle(mock(Future.class));
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+
+    }
+
+    @Test
+    public void testHandle_Virtual_Thread() throws Exception {
+
+        when(options.getExecutionMode()).thenReturn(ExecutionMode.VIRTUAL_THREAD);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        if (!VirtualThreadExecutor.isSupported()) {
+            try {
+                jerseyHandler.init(container);
+                fail();
+            } catch (IllegalStateException e) {
+                // Expected
+            }
+            return;
+        }
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        verify(applicationHandlerDelegate, timeout(1000)).handle(any(ContainerRequest.class));
+        verify(vertx, never()).executeBlocking(any(Handler.class), anyBoolean(), any(Handler.class));
+
+    }
+
+    @Test
+    public void testHandle_Route_Blocking() throws Exception {
+
+        ExtendedResourceContext resourceContext = mock(ExtendedResourceContext.class);
+        when(resourceContext.getResourceModel()).thenReturn(new ResourceModel.Builder(false)
+                .addResource(Resource.from(ReportResource.class))
+                .build());
+        when(serviceLocator.getService(ExtendedResourceContext.class)).thenReturn(resourceContext);
+
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.path()).thenReturn("/test/reports/cached");
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        jerseyHandler.init(container);
+
+        // Methods can opt back in to the event loop
+        jerseyHandler.handle(request);
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+        verify(vertx, never()).executeBlocking(any(Handler.class), anyBoolean(), any(Handler.class));
+
+        when(request.path()).thenReturn("/test/reports");
+        jerseyHandler.handle(request);
+        verify(vertx).executeBlocking(any(Handler.class), eq(false), any(Handler.class));
+
+    }
+
+    @Test
+    public void testHandle_Over_Concurrency_Limit() throws Exception {
+
+        SharedData sharedData = mock(SharedData.class);
+        when(sharedData.getLocalMap(anyString())).thenReturn(mock(LocalMap.class));
+        when(vertx.sharedData()).thenReturn(sharedData);
+        when(options.getMaxConcurrentRequests()).thenReturn(1);
+        when(options.getRetryAfter()).thenReturn(5);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        when(response.setStatusMessage(anyString())).thenReturn(response);
+        when(response.putHeader(anyString(), anyString())).thenReturn(response);
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+
+        // The first request has not completed
+        jerseyHandler.handle(request);
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+        verify(response).setStatusCode(eq(HttpResponseStatus.SERVICE_UNAVAILABLE.code()));
+        verify(response).putHeader(eq("Retry-After"), eq("5"));
+        verify(response).end();
+
+    }
+
+    @Test
+    public void testHandle_Queued_Before_Body_Read() throws Exception {
+
+        SharedData sharedData = mock(SharedData.class);
+        when(sharedData.getLocalMap(anyString())).thenReturn(mock(LocalMap.class));
+        when(vertx.sharedData()).thenReturn(sharedData);
+        when(options.getMaxConcurrentRequests()).thenReturn(1);
+        when(options.getMaxQueuedRequests()).thenReturn(1);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        HttpServerRequest queued = mock(HttpServerRequest.class);
+        when(queued.method()).thenReturn(HttpMethod.POST);
+        when(queued.headers()).thenReturn(new HeadersAdaptor(headers));
+        when(queued.response()).thenReturn(response);
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+
+        // The second request waits for a permit with its body held back
+        jerseyHandler.handle(queued);
+        verify(queued).pause();
+        verify(queued, never()).resume();
+        verify(queued, never()).handler(any());
+        verify(response, never()).setStatusCode(anyInt());
+        verify(applicationHandlerDelegate).handle(any(ContainerRequest.class));
+
+    }
+
+    @Test
+    public void testHandle_Body_Too_Large() throws Exception {
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        when(request.method()).thenReturn(HttpMethod.POST);
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+        when(response.setStatusCode(anyInt())).thenReturn(response);
+        when(response.setStatusMessage(anyString())).thenReturn(response);
+        when(response.putHeader(anyString(), anyString())).thenReturn(response);
+
+        jerseyHandler.init(container);
+        jerseyHandler.handle(request);
+
+        verify(request).handler(dataHandlerCaptor.capture());
+        dataHandlerCaptor.getValue().handle(Buffer.buffer(new byte[1025]));
+
+        verify(response).setStatusCode(eq(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code()));
+        verify(response).close();
+        verify(applicationHandlerDelegate, never()).handle(any(ContainerRequest.class));
+
+    }
+
     @Test
     public void testHandle_RequestProcessors() throws Exception {
 
@@ -267,6 +590,31 @@ public class DefaultJerseyHandlerTest {
 
     }
 
+    @Test
+    public void testShouldReadData_Configured() throws Exception {
+
+        when(options.getRequestBodyMethods()).thenReturn(Arrays.asList("POST", "DELETE"));
+        when(options.getRequestBodyMediaTypes()).thenReturn(Arrays.asList("application/*", "text/csv"));
+        jerseyHandler.init(container);
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM);
+        when(request.headers()).thenReturn(new HeadersAdaptor(headers));
+
+        when(request.method()).thenReturn(HttpMethod.PUT);
+        assertFalse(jerseyHandler.shouldReadData(request));
+
+        when(request.method()).thenReturn(HttpMethod.DELETE);
+        assertTrue(jerseyHandler.shouldReadData(request));
+
+        headers.set(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8");
+        assertTrue(jerseyHandler.shouldReadData(request));
+
+        headers.set(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN);
+        assertFalse(jerseyHandler.shouldReadData(request));
+
+    }
+
     @Test
     public void testGetAbsoluteURI() throws Exception {
         URI uri;
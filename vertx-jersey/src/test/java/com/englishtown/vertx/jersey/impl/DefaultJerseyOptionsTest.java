@@ -23,6 +23,7 @@
 
 package com.englishtown.vertx.jersey.impl;
 
+import com.englishtown.vertx.jersey.ExecutionMode;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -123,6 +124,67 @@ public class DefaultJerseyOptionsTest {
 
     }
 
+    @Test
+    public void testGetStreamRequestBody() throws Exception {
+
+        assertFalse(options.getStreamRequestBody());
+        assertEquals(DefaultJerseyOptions.DEFAULT_STREAM_BUFFER_SIZE, options.getStreamBufferSize());
+
+        config.put(DefaultJerseyOptions.CONFIG_STREAM_REQUEST_BODY, true);
+        config.put(DefaultJerseyOptions.CONFIG_STREAM_BUFFER_SIZE, 1024);
+
+        assertTrue(options.getStreamRequestBody());
+        assertEquals(1024, options.getStreamBufferSize());
+
+    }
+
+    @Test
+    public void testGetRequestBody() throws Exception {
+
+        assertEquals(DefaultJerseyOptions.DEFAULT_REQUEST_BODY_METHODS, options.getRequestBodyMethods());
+        assertEquals(DefaultJerseyOptions.DEFAULT_REQUEST_BODY_MEDIA_TYPES, options.getRequestBodyMediaTypes());
+
+        config.put(DefaultJerseyOptions.CONFIG_REQUEST_BODY_METHODS, new JsonArray().add("POST").add("DELETE"));
+        config.put(DefaultJerseyOptions.CONFIG_REQUEST_BODY_MEDIA_TYPES, new JsonArray().add("*/*"));
+
+        assertEquals(2, options.getRequestBodyMethods().size());
+        assertEquals("DELETE", options.getRequestBodyMethods().get(1));
+        assertEquals(1, options.getRequestBodyMediaTypes().size());
+        assertEquals("*/*", options.getRequestBodyMediaTypes().get(0));
+
+    }
+
+    @Test
+    public void testGetChunkFlush() throws Exception {
+
+        assertEquals(DefaultJerseyOptions.DEFAULT_CHUNK_FLUSH_SIZE, options.getChunkFlushSize());
+        assertEquals(0, options.getChunkFlushInterval());
+
+        config.put(DefaultJerseyOptions.CONFIG_CHUNK_FLUSH_SIZE, 0);
+        config.put(DefaultJerseyOptions.CONFIG_CHUNK_FLUSH_INTERVAL, 100);
+
+        assertEquals(0, options.getChunkFlushSize());
+        assertEquals(100, options.getChunkFlushInterval());
+
+        assertEquals(0, options.getWriteQueueMaxSize());
+        config.put(DefaultJerseyOptions.CONFIG_WRITE_QUEUE_MAX_SIZE, 1024);
+        assertEquals(1024, options.getWriteQueueMaxSize());
+
+    }
+
+    @Test
+    public void testGetExecutionMode() throws Exception {
+
+        assertEquals(ExecutionMode.EVENT_LOOP, options.getExecutionMode());
+
+        config.put(DefaultJerseyOptions.CONFIG_EXECUTION_MODE, "worker");
+        assertEquals(ExecutionMode.WORKER, options.getExecutionMode());
+
+        config.put(DefaultJerseyOptions.CONFIG_EXECUTION_MODE, "virtual_thread");
+        assertEquals(ExecutionMode.VIRTUAL_THREAD, options.getExecutionMode());
+
+    }
+
     @Test
     public void testGetPackages() throws Exception {
 
@@ -27,11 +27,17 @@ import com.englishtown.vertx.jersey.JerseyHandler;
 import com.englishtown.vertx.jersey.JerseyOptions;
 import com.englishtown.vertx.jersey.VertxContainer;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.SharedData;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -42,10 +48,12 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.net.URI;
+import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -80,6 +88,8 @@ public class DefaultJerseyServerTest {
     ArgumentCaptor<Handler<HttpServerRequest>> requestHandlerCaptor;
     @Captor
     ArgumentCaptor<HttpServerOptions> optionsCaptor;
+    @Captor
+    ArgumentCaptor<Handler<AsyncResult<Void>>> warmUpCaptor;
 
     @Before
     public void setUp() {
@@ -148,6 +158,65 @@ public class DefaultJerseyServerTest {
 
     }
 
+    @Test
+    public void testInit_Warm_Up() throws Exception {
+
+        when(options.getBaseUri()).thenReturn(baseUri);
+        when(options.getWarmUpPaths()).thenReturn(Collections.singletonList("*"));
+        mockSharedData();
+
+        jerseyServer.init(options, doneHandler);
+
+        // The server only listens once the warm-up is done
+        verify(httpServer, never()).listen(Mockito.<Handler<AsyncResult<HttpServer>>>any());
+        verify(vertx).executeBlocking(any(Handler.class), eq(false), warmUpCaptor.capture());
+
+        warmUpCaptor.getValue().handle(Future.succeededFuture());
+        verify(httpServer).listen(Mockito.<Handler<AsyncResult<HttpServer>>>any());
+
+    }
+
+    @Test
+    public void testInit_Warm_Up_Shared() throws Exception {
+
+        when(options.getBaseUri()).thenReturn(baseUri);
+        when(options.getWarmUpPaths()).thenReturn(Collections.singletonList("*"));
+        when(container.getApplicationHandler()).thenReturn(new ApplicationHandler(new ResourceConfig()));
+        Context context = mock(Context.class);
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        mockSharedData();
+
+        jerseyServer.init(options, doneHandler);
+        DefaultJerseyServer other = new DefaultJerseyServer(jerseyHandler, container);
+        other.init(options, doneHandler);
+
+        // The shared application handler is warmed up once, the other server waits for it
+        verify(vertx, times(1)).executeBlocking(any(Handler.class), eq(false), warmUpCaptor.capture());
+        verify(context, never()).runOnContext(any(Handler.class));
+
+        warmUpCaptor.getValue().handle(Future.succeededFuture());
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(context).runOnContext(captor.capture());
+        captor.getValue().handle(null);
+        verify(httpServer, times(2)).listen(Mockito.<Handler<AsyncResult<HttpServer>>>any());
+
+        // Later servers listen right away
+        DefaultJerseyServer late = new DefaultJerseyServer(jerseyHandler, container);
+        late.init(options, doneHandler);
+        verify(vertx, times(1)).executeBlocking(any(Handler.class), eq(false), any(Handler.class));
+        verify(context, times(2)).runOnContext(any(Handler.class));
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockSharedData() {
+        SharedData sharedData = mock(SharedData.class);
+        LocalMap<Object, Object> map = mock(LocalMap.class);
+        when(vertx.sharedData()).thenReturn(sharedData);
+        when(sharedData.getLocalMap(anyString())).thenReturn(map);
+        when(map.get(any())).thenReturn(new ApplicationWarmUp.SharedStats());
+    }
+
     @Test
     public void testInit_Listen_Result() throws Exception {
 
@@ -0,0 +1,114 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.notNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link DefaultReadStreamOutput} unit tests
+ */
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultReadStreamOutputTest {
+
+    DefaultReadStreamOutput output;
+
+    @Mock
+    ReadStream<Buffer> readStream;
+    @Mock
+    HttpServerResponse response;
+    @Mock
+    Handler<AsyncResult<Void>> doneHandler;
+    @Captor
+    ArgumentCaptor<Handler<Buffer>> dataCaptor;
+    @Captor
+    ArgumentCaptor<Handler<Void>> endCaptor;
+    @Captor
+    ArgumentCaptor<Handler<Throwable>> exceptionCaptor;
+    @Captor
+    ArgumentCaptor<AsyncResult<Void>> resultCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+        output = new DefaultReadStreamOutput(readStream, 10);
+    }
+
+    @Test
+    public void testPump() throws Exception {
+
+        assertEquals(10, output.getLength());
+        assertEquals(readStream, output.getReadStream());
+
+        output.pump(response, doneHandler);
+
+        verify(readStream).handler(dataCaptor.capture());
+        verify(readStream).endHandler(endCaptor.capture());
+
+        // Data is written and the read stream paused while the write queue is full
+        Buffer data = Buffer.buffer("0123456789");
+        when(response.writeQueueFull()).thenReturn(true);
+        dataCaptor.getValue().handle(data);
+        verify(response).write(data);
+        verify(readStream).pause();
+
+        endCaptor.getValue().handle(null);
+        verify(doneHandler).handle(resultCaptor.capture());
+        assertTrue(resultCaptor.getValue().succeeded());
+
+    }
+
+    @Test
+    public void testPump_Failed() throws Exception {
+
+        output = new DefaultReadStreamOutput(readStream);
+        assertEquals(-1, output.getLength());
+
+        output.pump(response, doneHandler);
+        verify(readStream).exceptionHandler(exceptionCaptor.capture());
+        verify(readStream).endHandler(endCaptor.capture());
+
+        exceptionCaptor.getValue().handle(new RuntimeException());
+        endCaptor.getValue().handle(null);
+
+        verify(doneHandler, times(1)).handle(resultCaptor.capture());
+        assertTrue(resultCaptor.getValue().failed());
+        verify(readStream).pause();
+
+    }
+
+    @Test
+    public void testPump_Stopped() throws Exception {
+
+        output.pump(response, doneHandler);
+        verify(readStream).handler(notNull(Handler.class));
+
+        // The client went away
+        Exception error = new IOException("The connection was closed");
+        output.stop(error);
+        output.stop(error);
+
+        verify(doneHandler, times(1)).handle(resultCaptor.capture());
+        assertSame(error, resultCaptor.getValue().cause());
+        verify(readStream).handler(null);
+        verify(readStream).pause();
+        verify(response, never()).exceptionHandler(any(Handler.class));
+
+    }
+
+}
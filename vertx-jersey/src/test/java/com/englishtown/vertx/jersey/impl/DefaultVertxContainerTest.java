@@ -1,19 +1,36 @@
 package com.englishtown.vertx.jersey.impl;
 
 import com.englishtown.vertx.jersey.JerseyOptions;
+import com.englishtown.vertx.jersey.inject.TestBinder;
+import com.englishtown.vertx.jersey.inject.TestBinder2;
+import com.englishtown.vertx.jersey.promises.integration.resources.JerseyResource;
+import com.englishtown.vertx.jersey.resources.TestResource;
+import com.englishtown.vertx.jersey.resources.UnindexedResource;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import org.glassfish.hk2.api.ServiceLocator;
 import org.glassfish.hk2.api.ServiceLocatorFactory;
+import org.glassfish.hk2.api.ServiceLocatorState;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.server.ApplicationHandler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -57,6 +74,236 @@ public class DefaultVertxContainerTest {
         assertNotNull(container.getApplicationHandler());
         assertNotNull(container.getApplicationHandlerDelegate());
 
+        // The package is scanned
+        assertTrue(container.getConfiguration().getClasses().contains(UnindexedResource.class));
+
+    }
+
+    @Test
+    public void testInit_Precompute_Message_Bodies() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+        when(options.getPrecomputeMessageBodies()).thenReturn(true);
+
+        container.init(options);
+
+        MessageBodyWorkers workers = container.getApplicationHandler().getServiceLocator().getService(MessageBodyWorkers.class);
+        assertThat(workers, instanceOf(CachingMessageBodyFactory.class));
+
+        // The String writers of the text/plain and application/json resource methods are already cached
+        CachingMessageBodyFactory factory = (CachingMessageBodyFactory) workers;
+        int cached = factory.getWriterCacheSize();
+        assertTrue(cached > 0);
+        // The arrays precompute reads are copies, they are not cached by identity
+        assertEquals(0, factory.getWriterIdentityCacheSize());
+
+        Annotation[] annotations = TestResource.class.getMethod("getHelloWorld").getDeclaredAnnotations();
+        MessageBodyWriter<String> writer = factory.getMessageBodyWriter(String.class, String.class, annotations, MediaType.TEXT_PLAIN_TYPE);
+        assertNotNull(writer);
+        assertEquals(cached, factory.getWriterCacheSize());
+        assertEquals(1, factory.getWriterIdentityCacheSize());
+
+        // Later lookups with the same array are keyed by its identity, an equal array is only compared by value once
+        assertSame(writer, factory.getMessageBodyWriter(String.class, String.class, annotations, MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(1, factory.getWriterIdentityCacheSize());
+        Annotation[] equalAnnotations = TestResource.class.getMethod("getHelloWorld").getDeclaredAnnotations();
+        assertNotSame(annotations, equalAnnotations);
+        assertSame(writer, factory.getMessageBodyWriter(String.class, String.class, equalAnnotations, MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(2, factory.getWriterIdentityCacheSize());
+        assertEquals(cached, factory.getWriterCacheSize());
+
+    }
+
+    @Test
+    public void testInit_Precompute_Identity_Cache_Full() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+        when(options.getPrecomputeMessageBodies()).thenReturn(true);
+
+        container.init(options);
+
+        CachingMessageBodyFactory factory = (CachingMessageBodyFactory) container.getApplicationHandler()
+                .getServiceLocator().getService(MessageBodyWorkers.class);
+        Annotation[] reused = new Annotation[0];
+        MessageBodyWriter<String> writer = factory.getMessageBodyWriter(String.class, String.class, reused, MediaType.TEXT_PLAIN_TYPE);
+
+        // Arrays built per request fill the identity cache up, the reused array stays cached
+        for (int i = 0; i < CachingMessageBodyFactory.MAX_CACHE_SIZE; i++) {
+            factory.getMessageBodyWriter(String.class, String.class, new Annotation[0], MediaType.TEXT_PLAIN_TYPE);
+        }
+        assertEquals(CachingMessageBodyFactory.MAX_CACHE_SIZE, factory.getWriterIdentityCacheSize());
+        assertSame(writer, factory.getMessageBodyWriter(String.class, String.class, reused, MediaType.TEXT_PLAIN_TYPE));
+        assertEquals(CachingMessageBodyFactory.MAX_CACHE_SIZE, factory.getWriterIdentityCacheSize());
+
+    }
+
+    @Test
+    public void testInit_Blocked_Time() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+        when(options.getBlockedTimeThreshold()).thenReturn(100);
+
+        container.init(options);
+
+        assertEquals(100, container.getConfiguration().getProperty(BlockedTimeEventListener.PROPERTY_THRESHOLD));
+        assertTrue(container.getConfiguration().getInstances().stream()
+                .anyMatch(instance -> instance instanceof BlockedTimeEventListener));
+
+    }
+
+    @Test
+    public void testInit_Shared() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+        when(options.getShareApplicationHandler()).thenReturn(true);
+
+        Vertx sharedVertx = Vertx.vertx();
+        try {
+            DefaultVertxContainer container1 = new DefaultVertxContainer(sharedVertx, locator);
+            DefaultVertxContainer container2 = new DefaultVertxContainer(sharedVertx, locator);
+
+            container1.init(options);
+            container2.init(options);
+
+            ApplicationHandler applicationHandler = container1.getApplicationHandler();
+            assertNotNull(applicationHandler);
+            assertSame(applicationHandler, container2.getApplicationHandler());
+
+            // Only the last container shuts the shared application handler down
+            container1.stop();
+            assertEquals(ServiceLocatorState.RUNNING, applicationHandler.getServiceLocator().getState());
+            container2.stop();
+            assertEquals(ServiceLocatorState.SHUTDOWN, applicationHandler.getServiceLocator().getState());
+
+        } finally {
+            sharedVertx.close();
+        }
+
+    }
+
+    @Test
+    public void testGetSharingKey() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+        when(options.getInstances()).thenReturn(Collections.<Object>singleton(new TestBinder()));
+        container.init(options);
+
+        // Another instance of the same class shares the key
+        JerseyOptions sameOptions = mock(JerseyOptions.class);
+        when(sameOptions.getPackages()).thenReturn(packages);
+        when(sameOptions.getInstances()).thenReturn(Collections.<Object>singleton(new TestBinder()));
+        DefaultVertxContainer same = new DefaultVertxContainer(vertx, locator);
+        same.init(sameOptions);
+        assertEquals(container.getSharingKey(), same.getSharingKey());
+
+        // Another parent locator provides other services
+        DefaultVertxContainer otherLocator = new DefaultVertxContainer(vertx, ServiceLocatorFactory.getInstance().create(null));
+        otherLocator.init(options);
+        assertNotEquals(container.getSharingKey(), otherLocator.getSharingKey());
+
+        // Another instance class registers other services
+        JerseyOptions otherOptions = mock(JerseyOptions.class);
+        when(otherOptions.getPackages()).thenReturn(packages);
+        when(otherOptions.getInstances()).thenReturn(Collections.<Object>singleton(new TestBinder2()));
+        DefaultVertxContainer otherInstance = new DefaultVertxContainer(vertx, locator);
+        otherInstance.init(otherOptions);
+        assertNotEquals(container.getSharingKey(), otherInstance.getSharingKey());
+
+    }
+
+    @Test
+    public void testInit_Shared_Binder() throws Exception {
+
+        // The options create new binder instances on every call
+        JerseyOptions options = new DefaultJerseyOptions();
+        options.init(new JsonObject()
+                .put(DefaultJerseyOptions.CONFIG_PACKAGES, new JsonArray().add("com.englishtown.vertx.jersey.resources"))
+                .put(DefaultJerseyOptions.CONFIG_BINDERS, new JsonArray().add(TestBinder.class.getName()))
+                .put(DefaultJerseyOptions.CONFIG_SHARE_APPLICATION_HANDLER, true));
+
+        Vertx sharedVertx = Vertx.vertx();
+        try {
+            DefaultVertxContainer container1 = new DefaultVertxContainer(sharedVertx, locator);
+            DefaultVertxContainer container2 = new DefaultVertxContainer(sharedVertx, locator);
+
+            container1.init(options);
+            container2.init(options);
+
+            assertNotNull(container1.getApplicationHandler());
+            assertSame(container1.getApplicationHandler(), container2.getApplicationHandler());
+
+            container1.stop();
+            container2.stop();
+
+        } finally {
+            sharedVertx.close();
+        }
+
+    }
+
+    @Test
+    public void testInit_Resource_Index() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+        when(options.getUseResourceIndex()).thenReturn(true);
+
+        container.init(options);
+
+        assertTrue(container.getConfiguration().getClasses().contains(TestResource.class));
+        // The package was not scanned, the resource left out of the index is not registered
+        assertFalse(container.getConfiguration().getClasses().contains(UnindexedResource.class));
+
+        ResourceIndex index = ResourceIndex.load(getClass().getClassLoader());
+        assertNotNull(index);
+        assertTrue(index.getClasses(Collections.singletonList("com.englishtown.vertx.jersey.other"),
+                getClass().getClassLoader()).isEmpty());
+
+    }
+
+    @Test
+    public void testInit_Resource_Index_Unindexed_Package() throws Exception {
+
+        // The package is also in the vertx-jersey classes, which have no index
+        packages.add("com.englishtown.vertx.jersey");
+        when(options.getUseResourceIndex()).thenReturn(true);
+
+        container.init(options);
+
+        // The package is scanned, including the sub-packages the test classes index covers
+        Set<Class<?>> classes = container.getConfiguration().getClasses();
+        assertTrue(classes.contains(TestResource.class));
+        assertTrue(classes.contains(JerseyResource.class));
+        assertTrue(classes.contains(UnindexedResource.class));
+
+    }
+
+    @Test
+    public void testReload() throws Exception {
+
+        packages.add("com.englishtown.vertx.jersey.resources");
+
+        Vertx reloadVertx = Vertx.vertx();
+        try {
+            DefaultVertxContainer container = new DefaultVertxContainer(reloadVertx, locator);
+            container.init(options);
+
+            ApplicationHandler previous = container.getApplicationHandler();
+            container.reload();
+
+            assertNotNull(container.getApplicationHandler());
+            assertNotSame(previous, container.getApplicationHandler());
+
+            // The previous application has no requests in flight and is shut down off the caller thread
+            for (int i = 0; i < 50 && previous.getServiceLocator().getState() != ServiceLocatorState.SHUTDOWN; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(ServiceLocatorState.SHUTDOWN, previous.getServiceLocator().getState());
+            assertEquals(ServiceLocatorState.RUNNING, container.getApplicationHandler().getServiceLocator().getState());
+
+        } finally {
+            reloadVertx.close();
+        }
+
     }
 
     @Test
@@ -0,0 +1,125 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.englishtown.vertx.jersey.security.DefaultSecurityContext;
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link DrainingApplicationHandlerDelegate} unit tests
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class DrainingApplicationHandlerDelegateTest {
+
+    private static final AtomicReference<AsyncResponse> suspended = new AtomicReference<>();
+
+    @Mock
+    ContainerResponseWriter responseWriter;
+
+    DrainingApplicationHandlerDelegate delegate;
+    AtomicInteger drained = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        suspended.set(null);
+        when(responseWriter.suspend(anyLong(), any(TimeUnit.class), any(ContainerResponseWriter.TimeoutHandler.class)))
+                .thenReturn(true);
+        // ApplicationHandler is final, run a real one
+        delegate = new DrainingApplicationHandlerDelegate(new ApplicationHandler(new ResourceConfig(SuspendedResource.class)));
+    }
+
+    @Test
+    public void testDrain_Idle() throws Exception {
+
+        delegate.drain(drained::incrementAndGet);
+        assertEquals(1, drained.get());
+
+    }
+
+    @Test
+    public void testDrain_In_Flight() throws Exception {
+
+        delegate.handle(request());
+        assertNotNull(suspended.get());
+        assertEquals(1, delegate.getInFlight());
+
+        delegate.drain(drained::incrementAndGet);
+        assertEquals(0, drained.get());
+
+        suspended.get().resume("done");
+        verify(responseWriter).commit();
+        assertEquals(0, delegate.getInFlight());
+        assertEquals(1, drained.get());
+
+    }
+
+    @Test
+    public void testDrain_Failure_Counted_Once() throws Exception {
+
+        ContainerRequest request = request();
+        delegate.handle(request);
+        ContainerResponseWriter writer = request.getResponseWriter();
+        assertEquals(1, delegate.getInFlight());
+
+        writer.commit();
+        assertEquals(0, delegate.getInFlight());
+
+        // A late failure of the same response is not counted twice
+        writer.failure(new RuntimeException());
+        assertEquals(0, delegate.getInFlight());
+
+    }
+
+    @Test
+    public void testHandle_Throws() throws Exception {
+
+        // Without an application handler the request fails before jersey takes it
+        delegate = new DrainingApplicationHandlerDelegate(null);
+
+        try {
+            delegate.handle(request());
+            fail();
+        } catch (NullPointerException e) {
+            // Expected
+        }
+
+        assertEquals(0, delegate.getInFlight());
+
+    }
+
+    private ContainerRequest request() {
+        ContainerRequest request = new ContainerRequest(URI.create("http://localhost/"), URI.create("http://localhost/suspended"),
+                "GET", new DefaultSecurityContext(false), new MapPropertiesDelegate());
+        request.setWriter(responseWriter);
+        return request;
+    }
+
+    @Path("suspended")
+    public static class SuspendedResource {
+        @GET
+        public void get(@Suspended AsyncResponse response) {
+            suspended.set(response);
+        }
+    }
+
+}
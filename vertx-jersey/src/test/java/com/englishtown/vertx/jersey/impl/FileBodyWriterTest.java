@@ -0,0 +1,79 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.glassfish.jersey.server.ContainerRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import javax.inject.Provider;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link FileBodyWriter} unit tests
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class FileBodyWriterTest {
+
+    FileBodyWriter writer;
+    Path path;
+    Annotation[] annotations = new Annotation[0];
+
+    @Mock
+    Provider<ContainerRequest> requestProvider;
+    @Mock
+    ContainerRequest request;
+
+    @Before
+    public void setUp() throws Exception {
+        when(requestProvider.get()).thenReturn(request);
+        writer = new FileBodyWriter(requestProvider);
+
+        File file = File.createTempFile("vertx-jersey", ".txt");
+        file.deleteOnExit();
+        path = file.toPath();
+        Files.write(path, "file content".getBytes());
+    }
+
+    @Test
+    public void testIsWriteable() throws Exception {
+        assertTrue(writer.isWriteable(File.class, File.class, annotations, MediaType.WILDCARD_TYPE));
+        assertTrue(writer.isWriteable(Path.class, Path.class, annotations, MediaType.WILDCARD_TYPE));
+        assertFalse(writer.isWriteable(String.class, String.class, annotations, MediaType.WILDCARD_TYPE));
+    }
+
+    @Test
+    public void testWriteTo() throws Exception {
+
+        // Encoded responses and other container writers get the file through the entity stream
+        ByteArrayOutputStream entityStream = new ByteArrayOutputStream();
+        writer.writeTo(path, Path.class, Path.class, annotations, MediaType.TEXT_PLAIN_TYPE, new MultivaluedHashMap<>(), entityStream);
+
+        assertEquals("file content", entityStream.toString());
+
+    }
+
+    @Test
+    public void testWriteTo_Send_File() throws Exception {
+
+        // The vert.x response writer sends the file itself
+        when(request.getProperty(FileBodyWriter.PROPERTY_SEND_FILE)).thenReturn(Boolean.TRUE);
+
+        ByteArrayOutputStream entityStream = new ByteArrayOutputStream();
+        writer.writeTo(path.toFile(), File.class, File.class, annotations, MediaType.TEXT_PLAIN_TYPE, new MultivaluedHashMap<>(), entityStream);
+
+        assertEquals(0, entityStream.size());
+
+    }
+
+}
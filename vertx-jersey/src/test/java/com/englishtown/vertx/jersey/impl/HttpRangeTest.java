@@ -0,0 +1,83 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link HttpRange} unit tests
+ */
+public class HttpRangeTest {
+
+    @Test
+    public void testParse() throws Exception {
+
+        List<HttpRange> ranges = HttpRange.parse("bytes=0-4, 10-, -3", 20);
+
+        assertNotNull(ranges);
+        assertEquals(3, ranges.size());
+        assertEquals("bytes 0-4/20", ranges.get(0).toContentRange(20));
+        assertEquals(5, ranges.get(0).length());
+        assertEquals(10, ranges.get(1).getStart());
+        assertEquals(19, ranges.get(1).getEnd());
+        assertEquals(17, ranges.get(2).getStart());
+        assertEquals(19, ranges.get(2).getEnd());
+
+        // The end is limited to the length
+        ranges = HttpRange.parse("bytes=5-100", 10);
+        assertEquals(9, ranges.get(0).getEnd());
+
+        // Suffix larger than the length
+        ranges = HttpRange.parse("bytes=-100", 10);
+        assertEquals(0, ranges.get(0).getStart());
+
+    }
+
+    @Test
+    public void testParse_Not_Satisfiable() throws Exception {
+
+        assertTrue(HttpRange.parse("bytes=10-", 10).isEmpty());
+        assertTrue(HttpRange.parse("bytes=-0", 10).isEmpty());
+        assertTrue(HttpRange.parse("bytes=0-", 0).isEmpty());
+
+    }
+
+    @Test
+    public void testParse_Ignored() throws Exception {
+
+        assertNull(HttpRange.parse(null, 10));
+        assertNull(HttpRange.parse("items=0-1", 10));
+        assertNull(HttpRange.parse("bytes=5-1", 10));
+        assertNull(HttpRange.parse("bytes=a-b", 10));
+        assertNull(HttpRange.parse("bytes=1", 10));
+
+        StringBuilder sb = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= HttpRange.MAX_RANGES; i++) {
+            sb.append(",").append(i).append("-").append(i);
+        }
+        assertNull(HttpRange.parse(sb.toString(), 100));
+
+    }
+
+    @Test
+    public void testMatchesIfRange() throws Exception {
+
+        assertTrue(HttpRange.matchesIfRange(null, null, -1));
+
+        assertTrue(HttpRange.matchesIfRange("\"abc\"", "\"abc\"", -1));
+        assertFalse(HttpRange.matchesIfRange("\"abc\"", "\"def\"", -1));
+        assertFalse(HttpRange.matchesIfRange("W/\"abc\"", "W/\"abc\"", -1));
+        assertFalse(HttpRange.matchesIfRange("\"abc\"", null, -1));
+
+        String date = "Sun, 06 Nov 1994 08:49:37 GMT";
+        long lastModified = HttpRange.parseDate(date);
+        assertTrue(HttpRange.matchesIfRange(date, null, lastModified + 500));
+        assertFalse(HttpRange.matchesIfRange(date, null, lastModified + 1000));
+        assertFalse(HttpRange.matchesIfRange(date, null, -1));
+        assertFalse(HttpRange.matchesIfRange("invalid", null, lastModified));
+
+    }
+
+}
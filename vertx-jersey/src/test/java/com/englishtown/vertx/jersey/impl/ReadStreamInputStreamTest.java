@@ -0,0 +1,160 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ReadStreamInputStream} unit tests
+ */
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class ReadStreamInputStreamTest {
+
+    ReadStreamInputStream inputStream;
+
+    @Mock
+    ReadStream<Buffer> readStream;
+    @Mock
+    Context context;
+    @Captor
+    ArgumentCaptor<Handler<Buffer>> dataHandlerCaptor;
+    @Captor
+    ArgumentCaptor<Handler<Void>> endHandlerCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+        doAnswer(invocation -> {
+            ((Handler<Void>) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(context).runOnContext(any(Handler.class));
+
+        inputStream = new ReadStreamInputStream(readStream, context, 16, 4);
+
+        verify(readStream).handler(dataHandlerCaptor.capture());
+        verify(readStream).endHandler(endHandlerCaptor.capture());
+    }
+
+    @Test
+    public void testRead() throws Exception {
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("ab"));
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("c"));
+        endHandlerCaptor.getValue().handle(null);
+
+        assertEquals(3, inputStream.available());
+        assertEquals('a', inputStream.read());
+
+        byte[] b = new byte[8];
+        assertEquals(1, inputStream.read(b, 0, b.length));
+        assertEquals('b', b[0]);
+        assertEquals(1, inputStream.read(b, 0, b.length));
+        assertEquals('c', b[0]);
+        assertEquals(-1, inputStream.read(b, 0, b.length));
+
+    }
+
+    @Test
+    public void testRead_Watermark() throws Exception {
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("abc"));
+        verify(readStream, never()).pause();
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("def"));
+        verify(readStream).pause();
+
+        byte[] b = new byte[8];
+        assertEquals(3, inputStream.read(b, 0, b.length));
+        verify(readStream, never()).resume();
+
+        assertEquals(3, inputStream.read(b, 0, b.length));
+        verify(readStream).resume();
+
+    }
+
+    @Test
+    public void testRead_Max_Body_Size() throws Exception {
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("0123456789"));
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("0123456789"));
+
+        try {
+            inputStream.read(new byte[32], 0, 32);
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testRead_Max_Body_Size_Handler() throws Exception {
+
+        reset(readStream);
+        inputStream = new ReadStreamInputStream(readStream, context, 16, 64);
+        verify(readStream).handler(dataHandlerCaptor.capture());
+
+        Handler<Void> tooLarge = mock(Handler.class);
+        inputStream.bodyTooLargeHandler(tooLarge);
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("0123456789"));
+        verify(readStream, never()).pause();
+
+        // The rest of the body is no longer received and the handler rejects the request
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("0123456789"));
+        verify(readStream).pause();
+        verify(tooLarge).handle(null);
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("0123456789"));
+        verify(tooLarge, times(1)).handle(null);
+
+    }
+
+    @Test
+    public void testFail() throws Exception {
+
+        inputStream.fail(new RuntimeException());
+
+        try {
+            inputStream.read();
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+
+    }
+
+    @Test
+    public void testClose() throws Exception {
+
+        dataHandlerCaptor.getValue().handle(Buffer.buffer("abcdef"));
+        verify(readStream).pause();
+
+        inputStream.close();
+        verify(readStream).resume();
+        assertEquals(0, inputStream.available());
+
+        try {
+            inputStream.read();
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.http.HttpMethod;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RequestBodyRegistry} unit tests
+ */
+public class RequestBodyRegistryTest {
+
+    RequestBodyRegistry registry = new RequestBodyRegistry(
+            DefaultJerseyOptions.DEFAULT_REQUEST_BODY_METHODS,
+            DefaultJerseyOptions.DEFAULT_REQUEST_BODY_MEDIA_TYPES,
+            2);
+
+    @Test
+    public void testShouldRead() throws Exception {
+
+        assertFalse(registry.shouldRead(HttpMethod.GET, MediaType.APPLICATION_JSON));
+        assertTrue(registry.shouldRead(HttpMethod.POST, MediaType.APPLICATION_JSON));
+        assertTrue(registry.shouldRead(HttpMethod.PATCH, MediaType.APPLICATION_JSON + "; charset=UTF-8"));
+        assertTrue(registry.shouldRead(HttpMethod.PUT, null));
+        assertTrue(registry.shouldRead(HttpMethod.PUT, ""));
+        assertFalse(registry.shouldRead(HttpMethod.PUT, MediaType.APPLICATION_OCTET_STREAM));
+        assertFalse(registry.shouldRead(HttpMethod.PUT, "not a media type"));
+
+    }
+
+    @Test
+    public void testShouldRead_Wildcard() throws Exception {
+
+        registry = new RequestBodyRegistry(Arrays.asList("post", "DELETE"), Arrays.asList("*/*"));
+
+        assertTrue(registry.shouldRead(HttpMethod.POST, "application/x-protobuf"));
+        assertTrue(registry.shouldRead(HttpMethod.DELETE, MediaType.APPLICATION_OCTET_STREAM));
+        assertFalse(registry.shouldRead(HttpMethod.PUT, MediaType.APPLICATION_OCTET_STREAM));
+
+    }
+
+    @Test
+    public void testGetContentType_Cached() throws Exception {
+
+        RequestBodyRegistry.ContentType contentType = registry.getContentType(MediaType.TEXT_PLAIN);
+
+        assertSame(contentType, registry.getContentType(MediaType.TEXT_PLAIN));
+        assertTrue(contentType.isReadBody());
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, contentType.getMediaType());
+
+        // The cache is bounded
+        registry.getContentType(MediaType.APPLICATION_JSON);
+        registry.getContentType(MediaType.APPLICATION_XML);
+        assertNotSame(contentType, registry.getContentType(MediaType.TEXT_PLAIN));
+
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.junit.Test;
+
+import java.net.URI;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RequestUriFactory} unit tests
+ */
+public class RequestUriFactoryTest {
+
+    RequestUriFactory factory = new RequestUriFactory(false, "/base/", 2);
+
+    @Test
+    public void testCreateRequestUri() throws Exception {
+
+        URI uri = factory.createRequestUri("test.englishtown.com:8080", "/base/test?a=b");
+
+        assertEquals("http", uri.getScheme());
+        assertEquals("test.englishtown.com", uri.getHost());
+        assertEquals(8080, uri.getPort());
+        assertEquals("/base/test", uri.getPath());
+        assertEquals("a=b", uri.getQuery());
+
+        uri = new RequestUriFactory(true, "/").createRequestUri("[::1]", "/test");
+        assertEquals("https", uri.getScheme());
+        assertEquals("[::1]", uri.getHost());
+        assertEquals(-1, uri.getPort());
+
+    }
+
+    @Test
+    public void testCreateRequestUri_Slow_Path() throws Exception {
+
+        assertNull(factory.createRequestUri(null, "/test"));
+        assertNull(factory.createRequestUri("", "/test"));
+        assertNull(factory.createRequestUri("test.englishtown.com:abc", "/test"));
+        assertNull(factory.createRequestUri("test.englishtown.com:", "/test"));
+        assertNull(factory.createRequestUri("user@test.englishtown.com", "/test"));
+        assertNull(factory.createRequestUri("test.englishtown.com/other", "/test"));
+        assertNull(factory.createRequestUri("test.englishtown.com", "http://other.englishtown.com/test"));
+        assertNull(factory.createRequestUri("test.englishtown.com", "/test?a=b c"));
+
+    }
+
+    @Test
+    public void testGetBaseUri() throws Exception {
+
+        URI baseUri = factory.getBaseUri("test.englishtown.com");
+
+        assertEquals(URI.create("http://test.englishtown.com/base/"), baseUri);
+        assertSame(baseUri, factory.getBaseUri("test.englishtown.com"));
+        assertNull(factory.getBaseUri("test.englishtown.com:abc"));
+
+        // The cache is bounded
+        factory.getBaseUri("test1.englishtown.com");
+        factory.getBaseUri("test2.englishtown.com");
+        assertNotSame(baseUri, factory.getBaseUri("test.englishtown.com"));
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.englishtown.vertx.jersey.impl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ResourceIndex} unit tests
+ */
+public class ResourceIndexTest {
+
+    private Path dir;
+    private URLClassLoader classLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("resource-index");
+
+        // An application with an index and a library without one, both under com.foo
+        Path app = Files.createDirectories(dir.resolve("app"));
+        Files.createDirectories(app.resolve("com/foo/a"));
+        Path index = app.resolve(ResourceIndex.LOCATION);
+        Files.createDirectories(index.getParent());
+        Files.write(index, Collections.singletonList("com.foo.a.AResource"), StandardCharsets.UTF_8);
+
+        Path library = Files.createDirectories(dir.resolve("library"));
+        Files.createDirectories(library.resolve("com/foo/b"));
+
+        classLoader = new URLClassLoader(new URL[]{app.toUri().toURL(), library.toUri().toURL()}, null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        classLoader.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testGetUnindexedPackages() throws Exception {
+
+        ResourceIndex index = ResourceIndex.load(classLoader);
+        assertNotNull(index);
+        assertEquals(Collections.singleton("com.foo.a.AResource"), index.getClassNames());
+
+        // The library package is not hidden by the application's index of a sibling package
+        assertEquals(Collections.singletonList("com.foo.b"),
+                index.getUnindexedPackages(Arrays.asList("com.foo.a", "com.foo.b"), classLoader));
+
+        // A parent package spans both roots
+        assertEquals(Collections.singletonList("com.foo"),
+                index.getUnindexedPackages(Collections.singletonList("com.foo"), classLoader));
+
+        // A package on no root has nothing to scan
+        assertTrue(index.getUnindexedPackages(Collections.singletonList("com.bar"), classLoader).isEmpty());
+
+    }
+
+    @Test
+    public void testLoad_No_Index() throws Exception {
+        try (URLClassLoader empty = new URLClassLoader(new URL[]{dir.resolve("library").toUri().toURL()}, null)) {
+            assertNull(ResourceIndex.load(empty));
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ResponseBackpressure} unit tests
+ */
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class ResponseBackpressureTest {
+
+    ResponseBackpressure backpressure;
+
+    @Mock
+    HttpServerResponse response;
+    @Captor
+    ArgumentCaptor<Handler<Void>> handlerCaptor;
+
+    @Before
+    public void setUp() throws Exception {
+        backpressure = new ResponseBackpressure(response);
+    }
+
+    @Test
+    public void testAwaitWritable_Not_Full() throws Exception {
+
+        when(response.writeQueueFull()).thenReturn(false);
+
+        assertTrue(backpressure.awaitWritable());
+        verify(response, never()).drainHandler(any());
+
+    }
+
+    @Test
+    public void testAwaitWritable_Drained() throws Exception {
+
+        // Full until the drain handler is called
+        when(response.writeQueueFull()).thenReturn(true, false);
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(backpressure::awaitWritable);
+
+        verify(response, timeout(1000)).drainHandler(handlerCaptor.capture());
+        assertFalse(result.isDone());
+
+        handlerCaptor.getValue().handle(null);
+        assertTrue(result.get(1, TimeUnit.SECONDS));
+
+    }
+
+    @Test
+    public void testAwaitWritable_Closed() throws Exception {
+
+        when(response.writeQueueFull()).thenReturn(true);
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(backpressure::awaitWritable);
+
+        verify(response, timeout(1000)).closeHandler(handlerCaptor.capture());
+        verify(response, timeout(1000)).drainHandler(any());
+
+        handlerCaptor.getValue().handle(null);
+        assertFalse(result.get(1, TimeUnit.SECONDS));
+        assertTrue(backpressure.isClosed());
+        assertFalse(backpressure.awaitWritable());
+
+    }
+
+    @Test
+    public void testAwaitWritable_Posted() throws Exception {
+
+        ResponseCloseHandler closeHandler = new ResponseCloseHandler();
+        backpressure = new ResponseBackpressure(response, closeHandler, 16);
+        when(response.writeQueueFull()).thenReturn(false);
+
+        // Writes posted to the event loop count before they reach the write queue
+        backpressure.posted(8);
+        assertTrue(backpressure.awaitWritable());
+
+        backpressure.posted(8);
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(backpressure::awaitWritable);
+        Thread.sleep(50);
+        assertFalse(result.isDone());
+
+        backpressure.written(8);
+        assertTrue(result.get(1, TimeUnit.SECONDS));
+        verify(response, never()).drainHandler(any());
+
+    }
+
+    @Test
+    public void testAwaitWritable_Chained_Close_Handler() throws Exception {
+
+        ResponseCloseHandler closeHandler = new ResponseCloseHandler();
+        Handler<Void> other = mock(Handler.class);
+        closeHandler.add(other);
+        backpressure = new ResponseBackpressure(response, closeHandler, 16);
+
+        backpressure.posted(16);
+        CompletableFuture<Boolean> result = CompletableFuture.supplyAsync(backpressure::awaitWritable);
+        Thread.sleep(50);
+
+        closeHandler.handle(null);
+        assertFalse(result.get(1, TimeUnit.SECONDS));
+        verify(other).handle(null);
+        // Only the backpressure built in setUp installed a close handler
+        verify(response, times(1)).closeHandler(any());
+
+    }
+
+}
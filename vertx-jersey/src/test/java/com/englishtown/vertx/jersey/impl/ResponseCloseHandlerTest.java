@@ -0,0 +1,66 @@
+package com.englishtown.vertx.jersey.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerResponse;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ResponseCloseHandler} unit tests
+ */
+@SuppressWarnings("unchecked")
+@RunWith(MockitoJUnitRunner.class)
+public class ResponseCloseHandlerTest {
+
+    @Mock
+    HttpServerResponse response;
+    @Mock
+    ContainerRequest request;
+
+    @Test
+    public void testHandle() throws Exception {
+
+        ResponseCloseHandler closeHandler = ResponseCloseHandler.install(response);
+        verify(response).closeHandler(eq(closeHandler));
+
+        Handler<Void> handler1 = mock(Handler.class);
+        Handler<Void> handler2 = mock(Handler.class);
+        doThrow(new RuntimeException()).when(handler1).handle(null);
+        closeHandler.add(handler1);
+        closeHandler.add(handler2);
+
+        closeHandler.handle(null);
+        closeHandler.handle(null);
+        assertTrue(closeHandler.isClosed());
+        verify(handler1, times(1)).handle(null);
+        verify(handler2, times(1)).handle(null);
+
+        // Handlers added after the close are called right away
+        Handler<Void> handler3 = mock(Handler.class);
+        closeHandler.add(handler3);
+        verify(handler3).handle(null);
+
+    }
+
+    @Test
+    public void testGet() throws Exception {
+
+        ResponseCloseHandler closeHandler = ResponseCloseHandler.get(request, response);
+        verify(request).setProperty(eq(ResponseCloseHandler.PROPERTY_CLOSE_HANDLER), eq(closeHandler));
+        verify(response).closeHandler(any());
+
+        when(request.getProperty(ResponseCloseHandler.PROPERTY_CLOSE_HANDLER)).thenReturn(closeHandler);
+        assertSame(closeHandler, ResponseCloseHandler.get(request, response));
+        verify(response, times(1)).closeHandler(any());
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.englishtown.vertx.jersey.impl;
+
+import com.englishtown.vertx.jersey.MaxBodySize;
+import com.englishtown.vertx.jersey.StreamBody;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link RoutePolicyIndex} unit tests
+ */
+public class RoutePolicyIndexTest {
+
+    @Path("files")
+    @MaxBodySize(1024)
+    public static class FilesResource {
+
+        @POST
+        @MaxBodySize(50 * 1024 * 1024)
+        @StreamBody
+        public void upload() {
+        }
+
+        @PUT
+        @Path("{id}")
+        public void put() {
+        }
+
+        @POST
+        @Path("{id}")
+        @StreamBody
+        public void postPart() {
+        }
+
+        @PUT
+        @Path("meta")
+        @StreamBody(false)
+        public void putMeta() {
+        }
+
+    }
+
+    @Path("plain")
+    public static class PlainResource {
+
+        @GET
+        public void get() {
+        }
+
+        @POST
+        public void post() {
+        }
+
+    }
+
+    private RoutePolicyIndex build(Class<?>... resourceClasses) {
+        ResourceModel.Builder builder = new ResourceModel.Builder(false);
+        for (Class<?> resourceClass : resourceClasses) {
+            builder.addResource(Resource.from(resourceClass));
+        }
+        return RoutePolicyIndex.build(builder.build());
+    }
+
+    @Test
+    public void testBuild_No_Policies() throws Exception {
+
+        RoutePolicyIndex index = build(PlainResource.class);
+
+        assertTrue(index.isEmpty());
+        assertNull(index.match("POST", "/plain"));
+
+    }
+
+    @Test
+    public void testMatch_Method_Policy() throws Exception {
+
+        RoutePolicyIndex index = build(FilesResource.class, PlainResource.class);
+        assertFalse(index.isEmpty());
+
+        RoutePolicy policy = index.match("POST", "/files");
+        assertNotNull(policy);
+        assertEquals(50 * 1024 * 1024, policy.getMaxBodySize().intValue());
+        assertTrue(policy.getStreamBody());
+
+    }
+
+    @Test
+    public void testMatch_Class_Policy() throws Exception {
+
+        RoutePolicyIndex index = build(FilesResource.class);
+
+        RoutePolicy policy = index.match("PUT", "/files/123");
+        assertNotNull(policy);
+        assertEquals(1024, policy.getMaxBodySize().intValue());
+        assertNull(policy.getStreamBody());
+
+    }
+
+    @Test
+    public void testMatch_Most_Specific_Template() throws Exception {
+
+        RoutePolicyIndex index = build(FilesResource.class);
+
+        RoutePolicy policy = index.match("PUT", "/files/meta");
+        assertNotNull(policy);
+        assertFalse(policy.getStreamBody());
+
+    }
+
+    @Test
+    public void testMatch_Method_Not_Allowed() throws Exception {
+
+        RoutePolicyIndex index = build(FilesResource.class);
+
+        // Jersey answers 405 on the most specific path, the policy of a less specific template does not apply
+        assertNull(index.match("POST", "/files/meta"));
+        assertTrue(index.match("POST", "/files/123").getStreamBody());
+
+    }
+
+    @Test
+    public void testMatch_No_Route() throws Exception {
+
+        RoutePolicyIndex index = build(FilesResource.class, PlainResource.class);
+
+        assertNull(index.match("POST", "/plain"));
+        assertNull(index.match("DELETE", "/files"));
+        assertNull(index.match("POST", "/unknown"));
+
+    }
+
+}
@@ -23,32 +23,50 @@
 
 package com.englishtown.vertx.jersey.impl;
 
+import com.englishtown.vertx.jersey.JerseyOptions;
+import com.englishtown.vertx.jersey.ReadStreamOutput;
 import com.englishtown.vertx.jersey.inject.VertxPostResponseProcessor;
 import com.englishtown.vertx.jersey.inject.VertxResponseProcessor;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.FileSystem;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.http.impl.HeadersAdaptor;
 import io.vertx.core.logging.Logger;
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
@@ -92,9 +110,9 @@ public class VertxResponseWriterTest {
     public void testWriteResponseStatusAndHeaders() throws Exception {
 
         ContainerResponse cr = mock(ContainerResponse.class);
-        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
         when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
-        when(cr.getStringHeaders()).thenReturn(headers);
+        when(cr.getHeaders()).thenReturn(headers);
 
         VertxResponseProcessor processor1 = mock(VertxResponseProcessor.class);
         VertxResponseProcessor processor2 = mock(VertxResponseProcessor.class);
@@ -107,12 +125,80 @@ public class VertxResponseWriterTest {
         assertNotNull(outputStream);
         verify(response, times(1)).setStatusCode(anyInt());
         verify(response, times(1)).setStatusMessage(anyString());
-        verify(response, times(2)).putHeader(anyString(), anyString());
+        verify(response, times(2)).putHeader(any(CharSequence.class), any(CharSequence.class));
         verify(processor1).process(eq(response), eq(cr));
         verify(processor2).process(eq(response), eq(cr));
 
         writer.writeResponseStatusAndHeaders(-1, cr);
-        verify(response, times(3)).putHeader(anyString(), anyString());
+        verify(response, times(3)).putHeader(any(CharSequence.class), any(CharSequence.class));
+
+    }
+
+    @Test
+    public void testWriteResponseStatusAndHeaders_Context() throws Exception {
+
+        Context context = mock(Context.class);
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        writer = new VertxResponseWriter(request, vertx, responseProcessors, postResponseProcessors);
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        headers.add("x-test", "custom header");
+        when(cr.getStatus()).thenReturn(201);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(headers);
+
+        VertxResponseProcessor processor = mock(VertxResponseProcessor.class);
+        responseProcessors.add(processor);
+
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(4, cr);
+        outputStream.write("body".getBytes());
+        outputStream.flush();
+
+        // Nothing touches the response off the request context
+        verify(response, never()).setStatusCode(anyInt());
+        verify(response, never()).putHeader(any(CharSequence.class), any(CharSequence.class));
+        verify(processor, never()).process(any(HttpServerResponse.class), any(ContainerResponse.class));
+        verify(response, never()).write(any(Buffer.class));
+
+        // The head is posted before the body
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(context, times(2)).runOnContext(captor.capture());
+        captor.getAllValues().get(0).handle(null);
+        verify(response).setStatusCode(eq(201));
+        verify(response).putHeader(eq((CharSequence) "x-test"), eq((CharSequence) "custom header"));
+        verify(processor).process(eq(response), eq(cr));
+        verify(response, never()).write(any(Buffer.class));
+
+        captor.getAllValues().get(1).handle(null);
+        verify(response).write(any(Buffer.class));
+
+    }
+
+    @Test
+    public void testWriteResponseStatusAndHeaders_Multi_Valued() throws Exception {
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(headers);
+
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_TYPE);
+        headers.add(HttpHeaders.SET_COOKIE, "a=1");
+        headers.add(HttpHeaders.SET_COOKIE, "b=2");
+        headers.add("x-count", 2);
+
+        writer.writeResponseStatusAndHeaders(-1, cr);
+
+        verify(response).putHeader(any(CharSequence.class), eq((CharSequence) MediaType.APPLICATION_JSON));
+        verify(response).putHeader(eq((CharSequence) "x-count"), eq((CharSequence) "2"));
+
+        ArgumentCaptor<Iterable> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(response).putHeader(any(CharSequence.class), captor.capture());
+
+        List<CharSequence> values = new ArrayList<>();
+        captor.getValue().forEach(value -> values.add((CharSequence) value));
+        assertEquals(Arrays.asList("a=1", "b=2"), values);
 
     }
 
@@ -120,9 +206,9 @@ public class VertxResponseWriterTest {
     public void testWriteResponse_Throw() throws Exception {
 
         ContainerResponse cr = mock(ContainerResponse.class);
-        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
         when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
-        when(cr.getStringHeaders()).thenReturn(headers);
+        when(cr.getHeaders()).thenReturn(headers);
 
         VertxResponseProcessor processor1 = mock(VertxResponseProcessor.class);
         VertxResponseProcessor processor2 = mock(VertxResponseProcessor.class);
@@ -135,12 +221,12 @@ public class VertxResponseWriterTest {
         assertNotNull(outputStream);
         verify(response, times(1)).setStatusCode(anyInt());
         verify(response, times(1)).setStatusMessage(anyString());
-        verify(response, times(2)).putHeader(anyString(), anyString());
+        verify(response, times(2)).putHeader(any(CharSequence.class), any(CharSequence.class));
         verify(processor1).process(eq(response), eq(cr));
         verify(processor2).process(eq(response), eq(cr));
 
         writer.writeResponseStatusAndHeaders(-1, cr);
-        verify(response, times(3)).putHeader(anyString(), anyString());
+        verify(response, times(3)).putHeader(any(CharSequence.class), any(CharSequence.class));
 
     }
 
@@ -148,9 +234,9 @@ public class VertxResponseWriterTest {
     public void testWrite() throws Exception {
 
         ContainerResponse cr = mock(ContainerResponse.class);
-        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
         when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
-        when(cr.getStringHeaders()).thenReturn(headers);
+        when(cr.getHeaders()).thenReturn(headers);
 
         DefaultHttpHeaders httpHeaders = new DefaultHttpHeaders();
         MultiMap vertxHeaders = new HeadersAdaptor(httpHeaders);
@@ -174,7 +260,11 @@ public class VertxResponseWriterTest {
 
         outputStream.write(";".getBytes());
         outputStream.close();
-        verify(response, times(3)).write(any(Buffer.class));
+        verify(response, times(2)).write(any(Buffer.class));
+
+        writer.commit();
+        verify(response).end(any(Buffer.class));
+        verify(response, never()).end();
 
         try {
             outputStream.write("fail".getBytes());
@@ -189,29 +279,38 @@ public class VertxResponseWriterTest {
     public void testWrite_Chunked() throws Exception {
 
         ContainerResponse cr = mock(ContainerResponse.class);
-        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
         when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
-        when(cr.getStringHeaders()).thenReturn(headers);
+        when(cr.getHeaders()).thenReturn(headers);
         when(cr.isChunked()).thenReturn(true);
 
         OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
         verify(response, times(1)).setChunked(eq(true));
 
+        // Small writes are coalesced until flushed
         outputStream.write("Chunked data".getBytes());
+        verify(response, never()).write(any(Buffer.class));
+
+        outputStream.flush();
         verify(response, times(1)).write(any(Buffer.class));
 
         outputStream.flush();
         verify(response, times(1)).write(any(Buffer.class));
 
         outputStream.write("Chunked data".getBytes());
-        verify(response, times(2)).write(any(Buffer.class));
-
         outputStream.write("Chunked data".getBytes());
-        verify(response, times(3)).write(any(Buffer.class));
+        verify(response, times(1)).write(any(Buffer.class));
 
         outputStream.write("Final chunked data".getBytes());
         outputStream.close();
-        verify(response, times(4)).write(any(Buffer.class));
+        ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(response, times(2)).write(captor.capture());
+
+        // vert.x never releases the buffers it is given, the chunks must be left to the garbage collector
+        for (Buffer chunk : captor.getAllValues()) {
+            assertFalse(chunk.getByteBuf().isDirect());
+            assertEquals(1, chunk.getByteBuf().refCnt());
+        }
 
         try {
             outputStream.write("fail".getBytes());
@@ -222,6 +321,355 @@ public class VertxResponseWriterTest {
 
     }
 
+    @Test
+    public void testWrite_Chunked_Flush_Size() throws Exception {
+
+        JerseyOptions options = mock(JerseyOptions.class);
+        when(options.getChunkFlushSize()).thenReturn(16);
+        when(options.getChunkFlushInterval()).thenReturn(50);
+        writer = new VertxResponseWriter(request, vertx, responseProcessors, postResponseProcessors, options);
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.isChunked()).thenReturn(true);
+
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
+
+        outputStream.write("Chunked data".getBytes());
+        verify(response, never()).write(any(Buffer.class));
+
+        // Reaching the flush size sends the chunk
+        outputStream.write("Chunked data".getBytes());
+        verify(response, times(1)).write(any(Buffer.class));
+
+        // The flush interval sends pending data
+        outputStream.write(1);
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx, times(2)).setTimer(eq(50L), captor.capture());
+        captor.getValue().handle(timerId);
+        verify(response, times(2)).write(any(Buffer.class));
+
+        outputStream.close();
+        verify(response, times(2)).write(any(Buffer.class));
+
+    }
+
+    @Test
+    public void testWrite_ReadStreamOutput() throws Exception {
+
+        ReadStreamOutput readStreamOutput = mock(ReadStreamOutput.class);
+        when(readStreamOutput.getLength()).thenReturn(-1L);
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) readStreamOutput.getClass());
+        when(cr.getEntity()).thenReturn(readStreamOutput);
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        VertxPostResponseProcessor processor = mock(VertxPostResponseProcessor.class);
+        postResponseProcessors.add(processor);
+
+        writer.writeResponseStatusAndHeaders(-1, cr);
+        verify(response).setChunked(eq(true));
+
+        writer.commit();
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(readStreamOutput).pump(eq(response), captor.capture());
+        verify(response, never()).end();
+
+        captor.getValue().handle(Future.succeededFuture());
+        verify(response).end();
+        verify(processor).process(eq(response), eq(cr));
+
+        // The pump is stopped if the client goes away
+        ArgumentCaptor<Handler> closeCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(response).closeHandler(closeCaptor.capture());
+        closeCaptor.getValue().handle(null);
+        verify(readStreamOutput).stop(any(IOException.class));
+
+    }
+
+    @Test
+    public void testWrite_File() throws Exception {
+
+        File file = File.createTempFile("vertx-jersey", ".txt");
+        file.deleteOnExit();
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) Path.class);
+        when(cr.getEntity()).thenReturn(file.toPath());
+
+        VertxPostResponseProcessor processor = mock(VertxPostResponseProcessor.class);
+        postResponseProcessors.add(processor);
+
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
+        outputStream.close();
+        writer.commit();
+
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(response).sendFile(eq(file.getPath()), captor.capture());
+        verify(response, never()).end();
+        verify(response, never()).write(any(Buffer.class));
+
+        captor.getValue().handle(Future.succeededFuture());
+        verify(processor).process(eq(response), eq(cr));
+        verify(response, never()).end();
+
+    }
+
+    @Test
+    public void testWrite_File_Content_Encoding() throws Exception {
+
+        File file = File.createTempFile("vertx-jersey", ".txt");
+        file.deleteOnExit();
+
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+        ContainerRequest requestContext = mock(ContainerRequest.class);
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(headers);
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) File.class);
+        when(cr.getEntity()).thenReturn(file);
+        when(cr.getRequestContext()).thenReturn(requestContext);
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        // The encoded body is written through the output stream by the writer interceptors
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
+        outputStream.write("gzipped".getBytes());
+        outputStream.close();
+        writer.commit();
+
+        verify(response, never()).sendFile(anyString(), any(Handler.class));
+        verify(response).end(any(Buffer.class));
+        verify(requestContext, never()).setProperty(eq(FileBodyWriter.PROPERTY_SEND_FILE), any());
+
+    }
+
+    @Test
+    public void testWrite_File_Range() throws Exception {
+
+        File file = File.createTempFile("vertx-jersey", ".txt");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("0123456789".getBytes());
+        }
+
+        FileSystem fileSystem = mock(FileSystem.class);
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()).add("Range", "bytes=2-5"));
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatus()).thenReturn(200);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) File.class);
+        when(cr.getEntity()).thenReturn(file);
+
+        writer.writeResponseStatusAndHeaders(10, cr);
+        verify(response).setStatusCode(eq(206));
+        verify(response).putHeader(eq("Content-Range"), eq("bytes 2-5/10"));
+        verify(response).putHeader(eq("Accept-Ranges"), eq("bytes"));
+
+        writer.commit();
+        verify(response, never()).sendFile(anyString(), any(Handler.class));
+        verify(response).putHeader(eq(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH), eq("4"));
+        verify(fileSystem).open(eq(file.getPath()), any(OpenOptions.class), any(Handler.class));
+
+    }
+
+    @Test
+    public void testWrite_File_Range_Closed() throws Exception {
+
+        File file = File.createTempFile("vertx-jersey", ".txt");
+        file.deleteOnExit();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write("0123456789".getBytes());
+        }
+
+        FileSystem fileSystem = mock(FileSystem.class);
+        AsyncFile asyncFile = mock(AsyncFile.class);
+        when(vertx.fileSystem()).thenReturn(fileSystem);
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()).add("Range", "bytes=2-5"));
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+        when(response.writeQueueFull()).thenReturn(true);
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatus()).thenReturn(200);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) File.class);
+        when(cr.getEntity()).thenReturn(file);
+
+        writer.writeResponseStatusAndHeaders(10, cr);
+        writer.commit();
+
+        ArgumentCaptor<Handler> openCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(fileSystem).open(eq(file.getPath()), any(OpenOptions.class), openCaptor.capture());
+        openCaptor.getValue().handle(Future.succeededFuture(asyncFile));
+
+        ArgumentCaptor<Handler> readCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(asyncFile).read(any(Buffer.class), eq(0), eq(2L), eq(4), readCaptor.capture());
+        readCaptor.getValue().handle(Future.succeededFuture(Buffer.buffer("23")));
+        verify(response).drainHandler(any(Handler.class));
+
+        // The client goes away while the write queue is full, the drain handler is never called
+        ArgumentCaptor<Handler> closeCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(response).closeHandler(closeCaptor.capture());
+        closeCaptor.getValue().handle(null);
+
+        verify(asyncFile).close();
+        verify(response).close();
+        verify(response, never()).end();
+
+    }
+
+    @Test
+    public void testWrite_File_Range_Not_Satisfiable() throws Exception {
+
+        File file = File.createTempFile("vertx-jersey", ".txt");
+        file.deleteOnExit();
+
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()).add("Range", "bytes=5-"));
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatus()).thenReturn(200);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) File.class);
+        when(cr.getEntity()).thenReturn(file);
+
+        writer.writeResponseStatusAndHeaders(0, cr);
+        verify(response).setStatusCode(eq(416));
+        verify(response).putHeader(eq("Content-Range"), eq("bytes */0"));
+
+        writer.commit();
+        verify(response, never()).sendFile(anyString(), any(Handler.class));
+        verify(response).end();
+
+    }
+
+    @Test
+    public void testWrite_WriteStreamOutput_Range() throws Exception {
+
+        DefaultWriteStreamOutput writeStreamOutput = new DefaultWriteStreamOutput();
+
+        when(request.method()).thenReturn(HttpMethod.GET);
+        when(request.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()).add("Range", "bytes=3-6"));
+        MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        headers.add(HttpHeaders.CONTENT_LENGTH, 10);
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatus()).thenReturn(200);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(headers);
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) DefaultWriteStreamOutput.class);
+        when(cr.getEntity()).thenReturn(writeStreamOutput);
+
+        writer.writeResponseStatusAndHeaders(-1, cr);
+        verify(response).setStatusCode(eq(206));
+        verify(response).putHeader(eq("Content-Range"), eq("bytes 3-6/10"));
+        verify(response).putHeader(eq(io.vertx.core.http.HttpHeaders.CONTENT_LENGTH), eq("4"));
+
+        writeStreamOutput.write(Buffer.buffer("01234"));
+        writeStreamOutput.write(Buffer.buffer("56789"));
+
+        ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(response, times(2)).write(captor.capture());
+        assertEquals("34", captor.getAllValues().get(0).toString());
+        assertEquals("56", captor.getAllValues().get(1).toString());
+
+    }
+
+    @Test
+    public void testRunOnContext() throws Exception {
+
+        // Off the event loop the action is posted to the request context
+        Context context = mock(Context.class);
+        Handler<Void> action = mock(Handler.class);
+        VertxResponseWriter.runOnContext(context, action);
+        verify(context).runOnContext(eq(action));
+        verify(action, never()).handle(any());
+
+        VertxResponseWriter.runOnContext(null, action);
+        verify(action).handle(null);
+
+        Vertx realVertx = Vertx.vertx();
+        try {
+            Context requestContext = realVertx.getOrCreateContext();
+            Context otherContext = realVertx.getOrCreateContext();
+            CompletableFuture<Boolean> inline = new CompletableFuture<>();
+            CompletableFuture<Boolean> ran = new CompletableFuture<>();
+
+            // Another event loop context does not run the action directly
+            otherContext.runOnContext(v -> {
+                VertxResponseWriter.runOnContext(requestContext, aVoid -> ran.complete(Vertx.currentContext() == requestContext));
+                inline.complete(ran.isDone());
+            });
+            assertFalse(inline.get(5, TimeUnit.SECONDS));
+            assertTrue(ran.get(5, TimeUnit.SECONDS));
+
+            // The request context itself does
+            CompletableFuture<Boolean> same = new CompletableFuture<>();
+            requestContext.runOnContext(v -> {
+                boolean[] done = new boolean[1];
+                VertxResponseWriter.runOnContext(requestContext, aVoid -> done[0] = true);
+                same.complete(done[0]);
+            });
+            assertTrue(same.get(5, TimeUnit.SECONDS));
+        } finally {
+            realVertx.close();
+        }
+
+    }
+
+    @Test
+    public void testWrite_WriteStreamOutput_Context() throws Exception {
+
+        Context context = mock(Context.class);
+        when(vertx.getOrCreateContext()).thenReturn(context);
+        writer = new VertxResponseWriter(request, vertx, responseProcessors, postResponseProcessors);
+        DefaultWriteStreamOutput writeStreamOutput = new DefaultWriteStreamOutput();
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(cr.hasEntity()).thenReturn(true);
+        when(cr.getEntityClass()).thenReturn((Class) DefaultWriteStreamOutput.class);
+        when(cr.getEntity()).thenReturn(writeStreamOutput);
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        writer.writeResponseStatusAndHeaders(-1, cr);
+
+        // Writes from this thread are posted to the request context after the head
+        Buffer data = Buffer.buffer("data");
+        writeStreamOutput.write(data);
+        verify(response, never()).write(any(Buffer.class));
+
+        ArgumentCaptor<Handler> captor = ArgumentCaptor.forClass(Handler.class);
+        verify(context, times(2)).runOnContext(captor.capture());
+        captor.getAllValues().get(0).handle(null);
+        captor.getAllValues().get(1).handle(null);
+        verify(response).write(eq(data));
+
+    }
+
     @Test
     public void testSuspend() throws Exception {
 
@@ -275,6 +723,52 @@ public class VertxResponseWriterTest {
 
     }
 
+    @Test
+    public void testCommit_Single_Write() throws Exception {
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+
+        MultiMap vertxHeaders = new HeadersAdaptor(new DefaultHttpHeaders());
+        when(response.headers()).thenReturn(vertxHeaders);
+
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
+        outputStream.write("{}".getBytes());
+        outputStream.flush();
+        outputStream.close();
+        writer.commit();
+
+        verify(response, never()).write(any(Buffer.class));
+        verify(response).end(any(Buffer.class));
+        assertEquals("2", vertxHeaders.get(HttpHeaders.CONTENT_LENGTH));
+
+    }
+
+    @Test
+    public void testCommit_Buffer_Not_Pooled() throws Exception {
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        when(cr.getStatusInfo()).thenReturn(mock(Response.StatusType.class));
+        when(cr.getHeaders()).thenReturn(new MultivaluedHashMap<>());
+        when(response.headers()).thenReturn(new HeadersAdaptor(new DefaultHttpHeaders()));
+
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
+        outputStream.write("{}".getBytes());
+        outputStream.close();
+        writer.commit();
+
+        // vert.x never releases the buffers it is given, the body must be left to the garbage collector
+        ArgumentCaptor<Buffer> captor = ArgumentCaptor.forClass(Buffer.class);
+        verify(response).end(captor.capture());
+        ByteBuf byteBuf = captor.getValue().getByteBuf();
+        assertTrue(byteBuf.hasArray());
+        assertFalse(byteBuf.isDirect());
+        assertEquals(1, byteBuf.refCnt());
+        assertEquals("{}", captor.getValue().toString());
+
+    }
+
     @Test
     public void testFailure() throws Exception {
 
@@ -287,6 +781,24 @@ public class VertxResponseWriterTest {
 
     }
 
+    @Test
+    public void testWrite_Already_Answered() throws Exception {
+
+        // A streamed body over the max body size was already answered with a 413
+        when(response.ended()).thenReturn(true);
+
+        ContainerResponse cr = mock(ContainerResponse.class);
+        OutputStream outputStream = writer.writeResponseStatusAndHeaders(-1, cr);
+        outputStream.write("error".getBytes());
+        writer.commit();
+        writer.failure(new RuntimeException());
+
+        verify(response, never()).setStatusCode(anyInt());
+        verify(response, never()).end();
+        verify(response, never()).end(any(Buffer.class));
+
+    }
+
     @Test
     public void testEnableResponseBuffering() throws Exception {
 
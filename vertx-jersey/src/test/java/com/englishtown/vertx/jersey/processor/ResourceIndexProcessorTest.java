@@ -0,0 +1,93 @@
+package com.englishtown.vertx.jersey.processor;
+
+import com.englishtown.vertx.jersey.impl.ResourceIndex;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import javax.ws.rs.Path;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link ResourceIndexProcessor} unit tests
+ */
+public class ResourceIndexProcessorTest {
+
+    private java.nio.file.Path dir;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("resource-index");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<java.nio.file.Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testProcess() throws Exception {
+
+        File resource = source("test/IndexedResource.java",
+                "package test;",
+                "",
+                "@javax.ws.rs.Path(\"indexed\")",
+                "public class IndexedResource {",
+                "",
+                "    @javax.ws.rs.ext.Provider",
+                "    public static class NestedProvider {",
+                "    }",
+                "",
+                "    @javax.ws.rs.ext.Provider",
+                "    public class InnerProvider {",
+                "    }",
+                "}");
+        File hidden = source("test/HiddenResource.java",
+                "package test;",
+                "",
+                "@javax.ws.rs.Path(\"hidden\")",
+                "class HiddenResource {",
+                "}");
+
+        java.nio.file.Path output = Files.createDirectories(dir.resolve("classes"));
+        // The jax-rs api is the only dependency of the sources
+        String classpath = new File(Path.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests must run on a JDK", compiler);
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    Arrays.asList("-classpath", classpath, "-d", output.toString()),
+                    null, fileManager.getJavaFileObjects(resource, hidden));
+            task.setProcessors(Arrays.asList(new ResourceIndexProcessor()));
+            assertTrue(task.call());
+        }
+
+        // Only public top level and static nested classes can be registered with jersey
+        List<String> lines = Files.readAllLines(output.resolve(ResourceIndex.LOCATION), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("test.IndexedResource", "test.IndexedResource$NestedProvider"), lines);
+
+    }
+
+    private File source(String name, String... lines) throws IOException {
+        java.nio.file.Path path = dir.resolve("src").resolve(name);
+        Files.createDirectories(path.getParent());
+        return Files.write(path, Arrays.asList(lines), StandardCharsets.UTF_8).toFile();
+    }
+
+}
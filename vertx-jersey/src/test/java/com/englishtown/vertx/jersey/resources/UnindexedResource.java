@@ -0,0 +1,20 @@
+package com.englishtown.vertx.jersey.resources;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Test jersey resource left out of the test resource index, it is only registered when the package is scanned
+ */
+@Path("unindexed")
+public class UnindexedResource {
+
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    public String get() {
+        return "unindexed";
+    }
+
+}